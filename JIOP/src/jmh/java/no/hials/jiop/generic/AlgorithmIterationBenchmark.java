@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic;
+
+import java.util.concurrent.TimeUnit;
+import no.hials.jiop.Main;
+import no.hials.jiop.generic.candidates.bacterium.DoubleArrayBacteriaFactory;
+import no.hials.jiop.generic.candidates.particles.DoubleArrayParticleFactory;
+import no.hials.jiop.generic.evolutionary.de.DifferentialEvolution;
+import no.hials.jiop.generic.evolutionary.de.MatrixDifferentialEvolution;
+import no.hials.jiop.generic.evolutionary.ga.GeneticAlgorithm;
+import no.hials.jiop.generic.evolutionary.ga.MatrixGeneticAlgorithm;
+import no.hials.jiop.generic.evolutionary.ga.crossover.DoubleArrayBlending;
+import no.hials.jiop.generic.evolutionary.ga.mutation.NeighborMutation;
+import no.hials.jiop.generic.evolutionary.ga.selection.StochasticUniversalSampling;
+import no.hials.jiop.generic.factories.DoubleArrayCandidateFactory;
+import no.hials.jiop.generic.heuristic.amoeba.AmoebaOptimization;
+import no.hials.jiop.generic.physical.sa.SimulatedAnnealing;
+import no.hials.jiop.generic.swarm.abs.ArtificialBeeColony;
+import no.hials.jiop.generic.swarm.bfo.BacterialForagingOptimization;
+import no.hials.jiop.generic.swarm.pso.MatrixParticleSwarmOptimization;
+import no.hials.jiop.generic.swarm.pso.MultiSwarmOptimization;
+import no.hials.jiop.generic.swarm.pso.ParticleSwarmOptimization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of singleIteration() for every algorithm, on the
+ * Rastrigin function from Main. Multi-threaded runs use the algorithms own
+ * multi-threaded mode where one exists, and a parallel evaluator for all of
+ * them. Run with "gradle jmh", which adds the GC profiler to report the
+ * allocation rate.
+ *
+ * @author Lars Ivar Hatledal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlgorithmIterationBenchmark {
+
+    @Param({"DE", "PSO", "MSO", "GA", "ABC", "BFO", "AMOEBA", "SA", "MATRIX_DE", "MATRIX_PSO", "MATRIX_GA"})
+    public String algorithm;
+
+    @Param({"20", "100"})
+    public int size;
+
+    @Param({"10", "50"})
+    public int dimension;
+
+    @Param({"false", "true"})
+    public boolean multiThreaded;
+
+    private Algorithm<double[]> alg;
+    private ExecutionContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Main.Deval evaluator = new Main.Deval(dimension);
+        alg = create(evaluator);
+        if (multiThreaded) {
+            context = ExecutionContext.forkJoin(Runtime.getRuntime().availableProcessors());
+            alg.setExecutionContext(context);
+            evaluator.setExecutionContext(context);
+        }
+        alg.init();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public double singleIteration() {
+        alg.singleIteration();
+        return alg.getBestCost();
+    }
+
+    private Algorithm<double[]> create(Main.Deval evaluator) {
+        switch (algorithm) {
+            case "DE":
+                return new DifferentialEvolution<>(size, 0.9, 0.7, new DoubleArrayCandidateFactory(), evaluator, multiThreaded);
+            case "PSO":
+                return new ParticleSwarmOptimization<>(size, new DoubleArrayParticleFactory(), evaluator, multiThreaded);
+            case "MSO":
+                return new MultiSwarmOptimization<>(4, Math.max(2, size / 4), new DoubleArrayParticleFactory(), evaluator, multiThreaded);
+            case "GA":
+                return new GeneticAlgorithm<>(size, 0.1, new StochasticUniversalSampling<>(0.5), new DoubleArrayBlending(0.5), new NeighborMutation<>(0.4, 0.4), new DoubleArrayCandidateFactory(), evaluator, "GA");
+            case "ABC":
+                return new ArtificialBeeColony<>(size, Math.max(1, size / 5), new DoubleArrayCandidateFactory(), evaluator);
+            case "BFO":
+                return new BacterialForagingOptimization<>(size, new DoubleArrayBacteriaFactory(), evaluator, multiThreaded);
+            case "AMOEBA":
+                return new AmoebaOptimization<>(size, new DoubleArrayParticleFactory(), evaluator);
+            case "SA":
+                return new SimulatedAnnealing<>(20, 0.995, new DoubleArrayCandidateFactory(), evaluator);
+            case "MATRIX_DE":
+                return new MatrixDifferentialEvolution(size, 0.9, 0.7, evaluator);
+            case "MATRIX_PSO":
+                return new MatrixParticleSwarmOptimization(size, evaluator);
+            case "MATRIX_GA":
+                return new MatrixGeneticAlgorithm(size, 0.1, 0.5, 0.9, 0.4, 0.4, evaluator);
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+}
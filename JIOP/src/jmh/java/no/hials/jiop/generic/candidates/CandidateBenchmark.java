@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.candidates;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-candidate primitives of DoubleArrayCandidate. Run with
+ * "gradle jmh", where the GC profiler reports bytes/op as
+ * gc.alloc.rate.norm.
+ *
+ * @author Lars Ivar Hatledal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CandidateBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int dimension;
+
+    private DoubleArrayCandidate candidate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom rng = new SplittableRandom(42);
+        double[] elements = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            elements[i] = rng.nextDouble();
+        }
+        candidate = new DoubleArrayCandidate(elements, 1);
+    }
+
+    @Benchmark
+    public DoubleArrayCandidate copy() {
+        return candidate.copy();
+    }
+
+    @Benchmark
+    public DoubleArrayCandidate neighbor() {
+        return candidate.neighbor(0.1);
+    }
+
+    /**
+     * Clamps a candidate which is already within the bounds, i.e. the cost
+     * of the checks in the common case
+     *
+     * @return the candidate
+     */
+    @Benchmark
+    public DoubleArrayCandidate clamp() {
+        candidate.clamp(0d, 1d);
+        return candidate;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.evolutionary.ga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import no.hials.jiop.Main;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.evolutionary.ga.crossover.DoubleArrayBlending;
+import no.hials.jiop.generic.evolutionary.ga.crossover.DoubleArrayCrossover;
+import no.hials.jiop.generic.evolutionary.ga.mutation.NeighborMutation;
+import no.hials.jiop.generic.evolutionary.ga.selection.RouletteWheelSelection;
+import no.hials.jiop.generic.evolutionary.ga.selection.StochasticUniversalSampling;
+import no.hials.jiop.generic.factories.DoubleArrayCandidateFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the GA operators in isolation on an evaluated population. The
+ * operators are invoked the way GeneticAlgorithm invokes them, selecting,
+ * mating or mutating the whole population. Run with "gradle jmh", where the
+ * GC profiler reports bytes/op as gc.alloc.rate.norm.
+ *
+ * Note: the mutation benchmark mutates the population in place, so the
+ * costs no longer match the elements. This does not affect the operators.
+ *
+ * @author Lars Ivar Hatledal
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneticOperatorBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int size;
+
+    @Param({"10", "100"})
+    public int dimension;
+
+    private List<Candidate<double[]>> population;
+
+    private final RouletteWheelSelection<double[]> rouletteWheel = new RouletteWheelSelection<>(0.5);
+    private final StochasticUniversalSampling<double[]> stochasticUniversal = new StochasticUniversalSampling<>(0.5);
+    private final DoubleArrayBlending blending = new DoubleArrayBlending(0.9);
+    private final DoubleArrayCrossover crossover = new DoubleArrayCrossover(2, 0.9);
+    private final NeighborMutation<double[]> mutation = new NeighborMutation<>(0.1, 0.1);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Main.Deval evaluator = new Main.Deval(dimension);
+        population = new ArrayList<>(new DoubleArrayCandidateFactory().generatePopulation(size, dimension));
+        evaluator.evaluateAll(population);
+    }
+
+    @Benchmark
+    public List<Candidate<double[]>> rouletteWheelSelection() {
+        return rouletteWheel.selectCandidates(population);
+    }
+
+    @Benchmark
+    public List<Candidate<double[]>> stochasticUniversalSampling() {
+        return stochasticUniversal.selectCandidates(population);
+    }
+
+    @Benchmark
+    public List<double[]> doubleArrayBlending() {
+        return blending.mateCandidates(population, size);
+    }
+
+    @Benchmark
+    public List<double[]> doubleArrayCrossover() {
+        return crossover.mateCandidates(population, size);
+    }
+
+    @Benchmark
+    public List<Candidate<double[]>> neighborMutation() {
+        mutation.mutateCandidates(population);
+        return population;
+    }
+}
@@ -26,6 +26,7 @@
 package no.hials.jiop;
 
 import no.hials.jiop.generic.Evaluator;
+import no.hials.jiop.generic.VectorizedEvaluator;
 import no.hials.jiop.generic.AlgorithmCollection;
 import no.hials.jiop.util.NormalizationUtility;
 import java.lang.reflect.InvocationTargetException;
@@ -84,7 +85,9 @@ public class Main {
 
     }
 
-    public static class Deval extends Evaluator<double[]> {
+    private static final NormalizationUtility RASTRIGIN_RANGE = new NormalizationUtility(1, 0, 10, -10);
+
+    public static class Deval extends Evaluator<double[]> implements VectorizedEvaluator {
 
         public Deval(int dimension) {
             super(dimension);
@@ -92,12 +95,22 @@ public class Main {
 
         @Override
         public double getCost(double[] elements) {
+            return rastrigin(elements, 0, elements.length);
+        }
+
+        @Override
+        public void getCosts(double[] elements, int dimension, int fromRow, int toRow, double[] costs) {
+            for (int row = fromRow; row < toRow; row++) {
+                costs[row] = rastrigin(elements, row * dimension, dimension);
+            }
+        }
+
+        private static double rastrigin(double[] elements, int offset, int length) {
             double cost = 0;
-            for (int i = 0; i < elements.length; i++) {
-                double xi = new NormalizationUtility(1, 0, 10, -10).normalize(elements[i]);
+            for (int i = offset; i < offset + length; i++) {
+                double xi = RASTRIGIN_RANGE.normalize(elements[i]);
                 cost += (xi * xi) - (10 * Math.cos(2 * Math.PI * xi)) + 10;
             }
-
             return cost;
         }
 
@@ -113,7 +126,7 @@ public class Main {
         public double getCost(List<Double> elements) {
             double cost = 0;
             for (int i = 0; i < elements.size(); i++) {
-                double xi = new NormalizationUtility(1, 0, 10, -10).normalize(elements.get(i));
+                double xi = RASTRIGIN_RANGE.normalize(elements.get(i));
                 cost += (xi * xi) - (10 * Math.cos(2 * Math.PI * xi)) + 10;
             }
 
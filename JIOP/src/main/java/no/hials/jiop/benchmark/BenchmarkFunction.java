@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.benchmark;
+
+import java.util.SplittableRandom;
+import no.hials.jiop.generic.Evaluator;
+import no.hials.jiop.generic.VectorizedEvaluator;
+
+/**
+ * Base class for the scalable test functions used to benchmark the
+ * algorithms. The candidates of the framework live in [0, 1], so every
+ * element is first mapped linearly to the search domain [lower, upper] of
+ * the function. The optional shift moves the optimum away from its usual
+ * location, and the optional rotation makes the function non-separable,
+ * i.e. f(z) is evaluated with z = R (x - o).
+ *
+ * The functions evaluate directly on primitive arrays without allocating.
+ * Evaluations made by the algorithms are counted by the Evaluator, see
+ * getEvaluations().
+ *
+ * @author Lars Ivar Hatledal
+ */
+public abstract class BenchmarkFunction extends Evaluator<double[]> implements VectorizedEvaluator {
+
+    private final String name;
+    private final double lower, upper;
+    private double[] shift;
+    private double[] rotation;
+
+    private final ThreadLocal<double[]> scratch;
+
+    /**
+     * Creates a new function
+     *
+     * @param name the name of the function
+     * @param dimension the problem dimensionality
+     * @param lower the lower bound of the search domain
+     * @param upper the upper bound of the search domain
+     */
+    protected BenchmarkFunction(String name, int dimension, double lower, double upper) {
+        super(dimension);
+        this.name = name;
+        this.lower = lower;
+        this.upper = upper;
+        this.scratch = ThreadLocal.withInitial(() -> new double[2 * dimension]);
+    }
+
+    /**
+     * Calculates the function value of a point in the search domain
+     *
+     * @param z the point, which may be modified
+     * @param n the dimension of the point
+     * @return the function value
+     */
+    protected abstract double compute(double[] z, int n);
+
+    /**
+     * Getter for the minimum function value
+     *
+     * @return the optimal cost
+     */
+    public double getOptimum() {
+        return 0;
+    }
+
+    @Override
+    public double getCost(double[] elements) {
+        return cost(elements, 0, scratch.get());
+    }
+
+    @Override
+    public void getCosts(double[] elements, int dimension, int fromRow, int toRow, double[] costs) {
+        double[] buffer = scratch.get();
+        for (int row = fromRow; row < toRow; row++) {
+            costs[row] = cost(elements, row * dimension, buffer);
+        }
+    }
+
+    private double cost(double[] x, int offset, double[] buffer) {
+        int n = getDimension();
+        double range = upper - lower;
+        for (int i = 0; i < n; i++) {
+            buffer[i] = lower + x[offset + i] * range;
+        }
+        if (shift != null) {
+            for (int i = 0; i < n; i++) {
+                buffer[i] -= shift[i];
+            }
+        }
+        if (rotation != null) {
+            for (int i = 0; i < n; i++) {
+                double sum = 0;
+                for (int j = 0, o = i * n; j < n; j++) {
+                    sum += rotation[o + j] * buffer[j];
+                }
+                buffer[n + i] = sum;
+            }
+            System.arraycopy(buffer, n, buffer, 0, n);
+        }
+        return compute(buffer, n);
+    }
+
+    /**
+     * Moves the optimum by a random vector, drawn uniformly from the middle
+     * 80% of the search domain
+     *
+     * @param seed the seed of the shift vector
+     */
+    public void setRandomShift(long seed) {
+        SplittableRandom rng = new SplittableRandom(seed);
+        double[] o = new double[getDimension()];
+        for (int i = 0; i < o.length; i++) {
+            o[i] = lower + (upper - lower) * (0.1 + 0.8 * rng.nextDouble());
+        }
+        setShift(o);
+    }
+
+    /**
+     * Sets the shift vector o, in domain coordinates
+     *
+     * @param shift the shift vector, or null for none
+     */
+    public void setShift(double[] shift) {
+        if (shift != null && shift.length != getDimension()) {
+            throw new IllegalArgumentException("Expected a shift of length " + getDimension() + ", was " + shift.length);
+        }
+        this.shift = shift == null ? null : shift.clone();
+    }
+
+    /**
+     * Rotates the function by a random orthogonal matrix, created by
+     * Gram-Schmidt orthogonalization of a gaussian matrix
+     *
+     * @param seed the seed of the rotation matrix
+     */
+    public void setRandomRotation(long seed) {
+        int n = getDimension();
+        SplittableRandom rng = new SplittableRandom(seed);
+        double[][] m = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                m[i][j] = gaussian(rng);
+            }
+            for (int k = 0; k < i; k++) {
+                double dot = 0;
+                for (int j = 0; j < n; j++) {
+                    dot += m[i][j] * m[k][j];
+                }
+                for (int j = 0; j < n; j++) {
+                    m[i][j] -= dot * m[k][j];
+                }
+            }
+            double norm = 0;
+            for (int j = 0; j < n; j++) {
+                norm += m[i][j] * m[i][j];
+            }
+            norm = Math.sqrt(norm);
+            for (int j = 0; j < n; j++) {
+                m[i][j] /= norm;
+            }
+        }
+        setRotation(m);
+    }
+
+    private static double gaussian(SplittableRandom rng) {
+        double u = 1 - rng.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * rng.nextDouble());
+    }
+
+    /**
+     * Sets the rotation matrix R
+     *
+     * @param rotation an orthogonal matrix of size dimension x dimension, or
+     * null for none
+     */
+    public void setRotation(double[][] rotation) {
+        if (rotation == null) {
+            this.rotation = null;
+            return;
+        }
+        int n = getDimension();
+        double[] flat = new double[n * n];
+        if (rotation.length != n) {
+            throw new IllegalArgumentException("Expected a " + n + "x" + n + " rotation matrix");
+        }
+        for (int i = 0; i < n; i++) {
+            if (rotation[i].length != n) {
+                throw new IllegalArgumentException("Expected a " + n + "x" + n + " rotation matrix");
+            }
+            System.arraycopy(rotation[i], 0, flat, i * n, n);
+        }
+        this.rotation = flat;
+    }
+
+    /**
+     * Whether or not the function is shifted
+     *
+     * @return true if shifted, false otherwise
+     */
+    public boolean isShifted() {
+        return shift != null;
+    }
+
+    /**
+     * Whether or not the function is rotated
+     *
+     * @return true if rotated, false otherwise
+     */
+    public boolean isRotated() {
+        return rotation != null;
+    }
+
+    public double getLower() {
+        return lower;
+    }
+
+    public double getUpper() {
+        return upper;
+    }
+
+    @Override
+    public String toString() {
+        return (shift != null ? "Shifted " : "") + (rotation != null ? "Rotated " : "") + name + " (D=" + getDimension() + ")";
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of running one algorithm on one function for a number of
+ * repetitions
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class BenchmarkResult {
+
+    private final String function, algorithm;
+    private final long[] evaluations;
+    private final boolean[] successes;
+    private final double[] finalErrors;
+    private final long[] checkpoints;
+    private final double[][] errors;
+
+    /**
+     * Creates a new result
+     *
+     * @param function the name of the function
+     * @param algorithm the name of the algorithm
+     * @param evaluations per run, the evaluations used to reach the target,
+     * or the whole budget used by unsuccessful runs
+     * @param successes per run, whether or not the target was reached
+     * @param finalErrors per run, the final distance to the optimal cost
+     * @param checkpoints the evaluation counts the errors are recorded at
+     * @param errors per run and checkpoint, the best distance to the optimal
+     * cost
+     */
+    public BenchmarkResult(String function, String algorithm, long[] evaluations, boolean[] successes, double[] finalErrors, long[] checkpoints, double[][] errors) {
+        this.function = function;
+        this.algorithm = algorithm;
+        this.evaluations = evaluations;
+        this.successes = successes;
+        this.finalErrors = finalErrors;
+        this.checkpoints = checkpoints;
+        this.errors = errors;
+    }
+
+    public String getFunction() {
+        return function;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Get the number of repetitions
+     *
+     * @return the number of runs
+     */
+    public int getRuns() {
+        return evaluations.length;
+    }
+
+    /**
+     * Get the number of runs reaching the target
+     *
+     * @return the number of successful runs
+     */
+    public int getSuccesses() {
+        int n = 0;
+        for (boolean success : successes) {
+            if (success) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Get the expected running time, i.e. the total number of evaluations
+     * used by all the runs divided by the number of successful runs
+     *
+     * @return the ERT, or infinity if no run reached the target
+     */
+    public double getExpectedRunningTime() {
+        int numSuccesses = getSuccesses();
+        if (numSuccesses == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        long total = 0;
+        for (long e : evaluations) {
+            total += e;
+        }
+        return (double) total / numSuccesses;
+    }
+
+    /**
+     * Get the median of the final errors
+     *
+     * @return the median final error
+     */
+    public double getMedianError() {
+        return median(finalErrors.clone());
+    }
+
+    /**
+     * Get the evaluation counts the convergence curve is recorded at
+     *
+     * @return the checkpoints
+     */
+    public long[] getCheckpoints() {
+        return checkpoints.clone();
+    }
+
+    /**
+     * Get the median best error over the runs, at each checkpoint
+     *
+     * @return the convergence curve
+     */
+    public double[] getMedianErrors() {
+        double[] curve = new double[checkpoints.length];
+        double[] column = new double[errors.length];
+        for (int c = 0; c < checkpoints.length; c++) {
+            for (int r = 0; r < errors.length; r++) {
+                column[r] = errors[r][c];
+            }
+            curve[c] = median(column);
+        }
+        return curve;
+    }
+
+    private static double median(double[] values) {
+        Arrays.sort(values);
+        int n = values.length;
+        return n % 2 == 1 ? values[n / 2] : (values[n / 2 - 1] + values[n / 2]) / 2;
+    }
+
+    @Override
+    public String toString() {
+        return "BenchmarkResult{" + "function=" + function + ", algorithm=" + algorithm + ", successes=" + getSuccesses() + "/" + getRuns() + ", ERT=" + getExpectedRunningTime() + ", medianError=" + getMedianError() + '}';
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import no.hials.jiop.generic.Algorithm;
+import no.hials.jiop.generic.Evaluator;
+import no.hials.jiop.generic.temination.TerminationCriteria;
+import no.hials.jiop.generic.temination.TerminationData;
+import no.hials.jiop.util.RandomSource;
+
+/**
+ * Runs algorithms on benchmark functions for a number of seeded repetitions,
+ * measuring progress in function evaluations rather than time or
+ * iterations. A run stops when the best cost is within the target error of
+ * the optimum, or when the evaluation budget is spent.
+ *
+ * Before each run RandomSource is seeded with seed + repetition, so runs of
+ * single threaded algorithms are reproducible.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class BenchmarkRunner {
+
+    private final int repetitions;
+    private final long maxEvaluations;
+    private final double targetError;
+    private long seed;
+
+    /**
+     * Creates a new runner
+     *
+     * @param repetitions the number of runs per algorithm and function
+     * @param maxEvaluations the evaluation budget of each run
+     * @param targetError the distance to the optimal cost counted as a
+     * success, e.g. 1e-8
+     */
+    public BenchmarkRunner(int repetitions, long maxEvaluations, double targetError) {
+        if (repetitions < 1) {
+            throw new IllegalArgumentException("Repetitions must be at least 1, was " + repetitions);
+        }
+        this.repetitions = repetitions;
+        this.maxEvaluations = maxEvaluations;
+        this.targetError = targetError;
+    }
+
+    /**
+     * Runs every algorithm on every function
+     *
+     * @param functions the functions
+     * @param algorithms algorithm names mapped to factories creating a new
+     * algorithm for the given evaluator
+     * @return the results, grouped by function
+     */
+    public List<BenchmarkResult> runAll(List<? extends BenchmarkFunction> functions, Map<String, Function<Evaluator<double[]>, Algorithm<double[]>>> algorithms) {
+        List<BenchmarkResult> results = new ArrayList<>(functions.size() * algorithms.size());
+        for (BenchmarkFunction function : functions) {
+            for (Map.Entry<String, Function<Evaluator<double[]>, Algorithm<double[]>>> entry : algorithms.entrySet()) {
+                results.add(run(function, entry.getKey(), entry.getValue()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Runs one algorithm on one function
+     *
+     * @param function the function
+     * @param name the name of the algorithm
+     * @param factory creates a new algorithm for the given evaluator
+     * @return the result
+     */
+    public BenchmarkResult run(BenchmarkFunction function, String name, Function<Evaluator<double[]>, Algorithm<double[]>> factory) {
+        long[] checkpoints = checkpoints(maxEvaluations);
+        long[] evaluations = new long[repetitions];
+        boolean[] successes = new boolean[repetitions];
+        double[] finalErrors = new double[repetitions];
+        double[][] errors = new double[repetitions][];
+        for (int r = 0; r < repetitions; r++) {
+            RandomSource.setSeed(seed + r);
+            function.resetEvaluations();
+            Algorithm<double[]> algorithm = factory.apply(function);
+            algorithm.init();
+            Run run = new Run(function, checkpoints);
+            algorithm.compute(run);
+            double error = algorithm.getBestCost() - function.getOptimum();
+            run.record(function.getEvaluations(), error);
+            run.fill(error);
+            successes[r] = run.hit >= 0;
+            evaluations[r] = successes[r] ? run.hit : function.getEvaluations();
+            finalErrors[r] = error;
+            errors[r] = run.errors;
+        }
+        return new BenchmarkResult(function.toString(), name, evaluations, successes, finalErrors, checkpoints, errors);
+    }
+
+    /**
+     * Creates the checkpoints 1, 2, 5, 10, 20, 50, ... up to the budget
+     */
+    private static long[] checkpoints(long maxEvaluations) {
+        List<Long> list = new ArrayList<>();
+        for (long decade = 1; decade < maxEvaluations; decade *= 10) {
+            for (long m : new long[]{1, 2, 5}) {
+                if (m * decade < maxEvaluations) {
+                    list.add(m * decade);
+                }
+            }
+        }
+        list.add(maxEvaluations);
+        long[] checkpoints = new long[list.size()];
+        for (int i = 0; i < checkpoints.length; i++) {
+            checkpoints[i] = list.get(i);
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Formats the results as a tab separated table with one row per
+     * function and algorithm, holding the success rate, the expected running
+     * time and the median final error
+     *
+     * @param results the results
+     * @return the table
+     */
+    public static String ertTable(List<BenchmarkResult> results) {
+        StringBuilder sb = new StringBuilder("function\talgorithm\tsuccesses\tERT\tmedian error\n");
+        for (BenchmarkResult result : results) {
+            sb.append(result.getFunction()).append("\t").append(result.getAlgorithm()).append("\t")
+                    .append(result.getSuccesses()).append("/").append(result.getRuns()).append("\t")
+                    .append(String.format(Locale.ROOT, "%.1f", result.getExpectedRunningTime())).append("\t")
+                    .append(String.format(Locale.ROOT, "%.3e", result.getMedianError())).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats the median best error versus the number of evaluations as a
+     * tab separated table, with one row per checkpoint and one column per
+     * function and algorithm
+     *
+     * @param results the results, which must share the same budget
+     * @return the table
+     */
+    public static String convergenceTable(List<BenchmarkResult> results) {
+        if (results.isEmpty()) {
+            return "";
+        }
+        long[] checkpoints = results.get(0).getCheckpoints();
+        List<double[]> curves = new ArrayList<>(results.size());
+        StringBuilder sb = new StringBuilder("evaluations");
+        for (BenchmarkResult result : results) {
+            if (!Arrays.equals(checkpoints, result.getCheckpoints())) {
+                throw new IllegalArgumentException("The results do not share the same evaluation budget");
+            }
+            sb.append("\t").append(result.getFunction()).append(" / ").append(result.getAlgorithm());
+            curves.add(result.getMedianErrors());
+        }
+        sb.append("\n");
+        for (int c = 0; c < checkpoints.length; c++) {
+            sb.append(checkpoints[c]);
+            for (double[] curve : curves) {
+                sb.append("\t").append(String.format(Locale.ROOT, "%.3e", curve[c]));
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Getter for the base seed
+     *
+     * @return the seed of the first repetition
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the base seed. Repetition r is run with the seed seed + r.
+     *
+     * @param seed the seed of the first repetition
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Tracks one run. Invoked by compute() after every iteration, where it
+     * records the best error at the checkpoints passed, and stops the run
+     * when the target is reached or the budget is spent.
+     */
+    private class Run implements TerminationCriteria {
+
+        private final BenchmarkFunction function;
+        private final long[] checkpoints;
+        private final double[] errors;
+        private int next;
+        private long hit = -1;
+
+        Run(BenchmarkFunction function, long[] checkpoints) {
+            this.function = function;
+            this.checkpoints = checkpoints;
+            this.errors = new double[checkpoints.length];
+        }
+
+        @Override
+        public boolean souldTerminate(TerminationData data) {
+            long evaluations = function.getEvaluations();
+            record(evaluations, data.bestCost - function.getOptimum());
+            return hit >= 0 || evaluations >= maxEvaluations;
+        }
+
+        void record(long evaluations, double error) {
+            while (next < checkpoints.length && checkpoints[next] <= evaluations) {
+                errors[next++] = error;
+            }
+            if (hit < 0 && error <= targetError) {
+                hit = evaluations;
+            }
+        }
+
+        void fill(double error) {
+            while (next < checkpoints.length) {
+                errors[next++] = error;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the standard set of benchmark functions
+ *
+ * @author Lars Ivar Hatledal
+ */
+public final class BenchmarkSuite {
+
+    private BenchmarkSuite() {
+    }
+
+    /**
+     * Creates the plain functions: Sphere, Rosenbrock, Rastrigin, Ackley,
+     * Griewank and Schwefel
+     *
+     * @param dimension the problem dimensionality
+     * @return new function instances
+     */
+    public static List<BenchmarkFunction> basic(int dimension) {
+        List<BenchmarkFunction> functions = new ArrayList<>();
+        functions.add(new Sphere(dimension));
+        functions.add(new Rosenbrock(dimension));
+        functions.add(new Rastrigin(dimension));
+        functions.add(new Ackley(dimension));
+        functions.add(new Griewank(dimension));
+        functions.add(new Schwefel(dimension));
+        return functions;
+    }
+
+    /**
+     * Creates the plain functions, followed by shifted variants of all of
+     * them but Schwefel and shifted and rotated variants of the multimodal
+     * ones. The variants are fully determined by the seed.
+     *
+     * @param dimension the problem dimensionality
+     * @param seed the seed of the shift vectors and rotation matrices
+     * @return new function instances
+     */
+    public static List<BenchmarkFunction> standard(int dimension, long seed) {
+        List<BenchmarkFunction> functions = basic(dimension);
+        List<BenchmarkFunction> shifted = basic(dimension);
+        for (int i = 0; i < shifted.size(); i++) {
+            BenchmarkFunction function = shifted.get(i);
+            if (!(function instanceof Schwefel)) {
+                function.setRandomShift(seed + i);
+                functions.add(function);
+            }
+        }
+        BenchmarkFunction[] rotated = {new Rastrigin(dimension), new Ackley(dimension), new Griewank(dimension)};
+        for (int i = 0; i < rotated.length; i++) {
+            rotated[i].setRandomShift(seed + 100 + i);
+            rotated[i].setRandomRotation(seed + 200 + i);
+            functions.add(rotated[i]);
+        }
+        return functions;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.benchmark;
+
+/**
+ * The Schwefel function. Deceptive, as the second best minimum is far from
+ * the optimum at (420.9687, ..., 420.9687), close to the edge of the domain.
+ * The function is unbounded below outside the domain, so it can not be
+ * shifted or rotated.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class Schwefel extends BenchmarkFunction {
+
+    private static final double OFFSET = 418.9828872724338;
+
+    public Schwefel(int dimension) {
+        super("Schwefel", dimension, -500, 500);
+    }
+
+    @Override
+    protected double compute(double[] z, int n) {
+        double sum = OFFSET * n;
+        for (int i = 0; i < n; i++) {
+            sum -= z[i] * Math.sin(Math.sqrt(Math.abs(z[i])));
+        }
+        return sum;
+    }
+
+    @Override
+    public void setShift(double[] shift) {
+        if (shift != null) {
+            throw new UnsupportedOperationException("The Schwefel function can not be shifted");
+        }
+        super.setShift(null);
+    }
+
+    @Override
+    public void setRotation(double[][] rotation) {
+        if (rotation != null) {
+            throw new UnsupportedOperationException("The Schwefel function can not be rotated");
+        }
+        super.setRotation(null);
+    }
+}
@@ -33,24 +33,28 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import no.hials.jiop.generic.candidates.Candidate;
 import no.hials.jiop.generic.candidates.CandidateSolution;
 import no.hials.jiop.generic.factories.CandidateFactory;
 import no.hials.jiop.history.MLHistory;
+import no.hials.jiop.generic.temination.CancellationToken;
 import no.hials.jiop.generic.temination.TerminationCriteria;
 import no.hials.jiop.generic.temination.TerminationData;
 import no.hials.jiop.generic.temination.TimeElapsedCriteria;
+import no.hials.jiop.util.RandomSource;
 import org.jfree.data.xy.XYSeries;
 
 /**
@@ -60,7 +64,7 @@ import org.jfree.data.xy.XYSeries;
  */
 public abstract class Algorithm<E> implements Serializable {
 
-    protected final Random rng = new Random();
+    protected final RandomSource rng = RandomSource.getInstance();
     protected final static int availableProcessors = Runtime.getRuntime().availableProcessors();
 
     private final CandidateFactory<E> candidateFactory;
@@ -71,10 +75,13 @@ public abstract class Algorithm<E> implements Serializable {
 
     private MLHistory timeSeries;
 
-    private ExecutorService pool;
-    private ExecutorCompletionService completionService;
+    private transient ExecutionContext executionContext;
+    private transient ExecutorCompletionService<Candidate<E>> completionService;
 
-    private Candidate<E> bestCandidate;
+    private final AtomicReference<Candidate<E>> bestCandidate = new AtomicReference<>();
+
+    private long terminationCheckInterval = 0;
+    private transient volatile CancellationToken cancellationToken;
 
     public Algorithm(CandidateFactory<E> candidateFactory, Evaluator<E> evaluator, String name) {
         this.name = name;
@@ -94,7 +101,8 @@ public abstract class Algorithm<E> implements Serializable {
      * before the algorithm can be used
      */
     public final void init() {
-        this.bestCandidate = null;
+        shareExecutionContext();
+        this.bestCandidate.set(null);
         setBestCandidateIfBetter(subInit());
     }
 
@@ -111,7 +119,8 @@ public abstract class Algorithm<E> implements Serializable {
         } else if (seeds.length == 0) {
             init();
         } else {
-            this.bestCandidate = null;
+            shareExecutionContext();
+            this.bestCandidate.set(null);
             setBestCandidateIfBetter(subInit(Arrays.asList(seeds)));
         }
     }
@@ -129,7 +138,8 @@ public abstract class Algorithm<E> implements Serializable {
         } else if (seeds.isEmpty()) {
             init();
         } else {
-            this.bestCandidate = null;
+            shareExecutionContext();
+            this.bestCandidate.set(null);
             setBestCandidateIfBetter(subInit(seeds));
         }
     }
@@ -147,14 +157,15 @@ public abstract class Algorithm<E> implements Serializable {
     }
 
     /**
-     * Evaluates all the candidates in the list
+     * Evaluates all the candidates in the list. While compute() is running,
+     * the evaluation stops early if the run is cancelled, see isCancelled().
      *
      * @param candidates candidates to evaluate
      * @return the same list, where all of the candudates have gotten their cost
      * updated
      */
     public List<Candidate<E>> evaluateAll(List<Candidate<E>> candidates) {
-        return getEvaluator().evaluateAll(candidates);
+        return getEvaluator().evaluateAll(candidates, cancellationToken);
     }
 
     /**
@@ -181,10 +192,21 @@ public abstract class Algorithm<E> implements Serializable {
     /**
      * Getter for the current best candidate
      *
+     * @return a copy of the best found candidate yet
+     */
+    public Candidate<E> getBestCandidate() {
+        return bestCandidate.get().copy();
+    }
+
+    /**
+     * Getter for the current best candidate without copying it. The returned
+     * candidate is a snapshot which is replaced, never modified, when a
+     * better candidate is found. It must not be modified by the caller.
+     *
      * @return the best found candidate yet
      */
-    public synchronized Candidate<E> getBestCandidate() {
-        return bestCandidate.copy();
+    public Candidate<E> peekBestCandidate() {
+        return bestCandidate.get();
     }
 
     /**
@@ -192,34 +214,131 @@ public abstract class Algorithm<E> implements Serializable {
      *
      * @return the best found cost yet
      */
-    public synchronized double getBestCost() {
-        return bestCandidate.getCost();
+    public double getBestCost() {
+        return bestCandidate.get().getCost();
     }
 
     /**
-     * Given a candidate, updates the best candidate if the new one is better
+     * Given a candidate, updates the best candidate if the new one is better.
+     * The candidate is only copied if it is an improvement, and the update
+     * is lock free.
      *
      * @param candidate the candidate to test
      */
-    public synchronized void setBestCandidateIfBetter(Candidate<E> candidate) {
-        if (bestCandidate == null) {
-            bestCandidate = candidate.copy();
-        } else {
-            if (candidate.getCost() < bestCandidate.getCost()) {
-                this.bestCandidate = candidate.copy();
+    public void setBestCandidateIfBetter(Candidate<E> candidate) {
+        Candidate<E> current = bestCandidate.get();
+        if (current != null && !(candidate.getCost() < current.getCost())) {
+            return;
+        }
+        Candidate<E> snapshot = candidate.copy();
+        while (!bestCandidate.compareAndSet(current, snapshot)) {
+            current = bestCandidate.get();
+            if (current != null && !(snapshot.getCost() < current.getCost())) {
+                return;
             }
         }
     }
 
-    protected CompletionService<Candidate<E>> getCompletionService() {
-        if (pool == null) {
-//            pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-            pool = Executors.newCachedThreadPool();
-            completionService = new ExecutorCompletionService(pool);
+    /**
+     * Getter for candidates to send to other islands when run as part of an
+     * island model. The default implementation returns a copy of the best
+     * candidate.
+     *
+     * @param count the preferred number of migrants
+     * @return copies of good candidates found by this algorithm
+     */
+    public List<Candidate<E>> emigrate(int count) {
+        List<Candidate<E>> migrants = new ArrayList<>(1);
+        if (count > 0) {
+            migrants.add(getBestCandidate());
+        }
+        return migrants;
+    }
+
+    /**
+     * Inserts candidates received from other islands when run as part of an
+     * island model. The default implementation only updates the best
+     * candidate, algorithms with a population should insert the migrants
+     * into it.
+     *
+     * @param migrants the migrants, which are not used by anyone else
+     */
+    public void immigrate(List<Candidate<E>> migrants) {
+        for (Candidate<E> migrant : migrants) {
+            setBestCandidateIfBetter(migrant);
+        }
+    }
+
+    /**
+     * Converts a migrant, which may come from an algorithm using a different
+     * candidate type, to a candidate created by this algorithms factory. The
+     * cost of the migrant is kept, so no evaluation is required.
+     *
+     * @param migrant the migrant
+     * @return a candidate usable by this algorithm
+     */
+    protected Candidate<E> adopt(Candidate<E> migrant) {
+        Candidate<E> candidate = generateFromElements(migrant.getElements());
+        candidate.setCost(migrant.getCost());
+        return candidate;
+    }
+
+    protected synchronized CompletionService<Candidate<E>> getCompletionService() {
+        if (completionService == null) {
+            completionService = new ExecutorCompletionService<>(getExecutionContext());
         }
         return completionService;
     }
 
+    /**
+     * Runs task.accept(i) for every i in [0, numTasks) using the execution
+     * context, and returns once all of them have completed
+     *
+     * @param numTasks the number of tasks
+     * @param task the task to run
+     */
+    protected void invokeAll(int numTasks, IntConsumer task) {
+        getExecutionContext().invokeAll(numTasks, task);
+    }
+
+    /**
+     * Getter for the execution context used by multi-threaded algorithms.
+     * Unless one has been set, the shared default context is used.
+     *
+     * @return the execution context
+     */
+    public synchronized ExecutionContext getExecutionContext() {
+        if (executionContext == null) {
+            executionContext = ExecutionContext.getDefault();
+        }
+        return executionContext;
+    }
+
+    /**
+     * Sets the execution context used by multi-threaded algorithms. The
+     * algorithm does not take ownership, so the caller is responsible for
+     * closing the context.
+     *
+     * @param executionContext the execution context
+     */
+    public synchronized void setExecutionContext(ExecutionContext executionContext) {
+        if (executionContext != this.executionContext) {
+            this.executionContext = executionContext;
+            this.completionService = null;
+        }
+        shareExecutionContext();
+    }
+
+    /**
+     * Hands the execution context to the evaluator, unless the evaluator has
+     * been given one of its own
+     */
+    private void shareExecutionContext() {
+        if (evaluator != null) {
+            evaluator.inheritExecutionContext(getExecutionContext());
+        }
+    }
+
     /**
      * Tries to minimize the cost function suppiled to the algorithm. The
      * stopping criterias decides when the algorithm should return. If no such
@@ -238,28 +357,113 @@ public abstract class Algorithm<E> implements Serializable {
         } else if (criterias.length == 0) {
             criterias = new TerminationCriteria[]{new TimeElapsedCriteria(100l)};
         }
-        long t0 = System.currentTimeMillis();
-        long timeElapsed = 0;
-        double bestCost;
-        int numIterations = 0;
+        TerminationPoll poll = new TerminationPoll(criterias);
+        CancellationToken token = terminationCheckInterval > 0 ? new CancellationToken(poll, TimeUnit.MILLISECONDS.toNanos(terminationCheckInterval)) : new CancellationToken();
+        this.cancellationToken = token;
+        long numEvaluations = 0;
         boolean terminate = false;
-        while (!terminate) {
-            long start = System.nanoTime();
-            singleIteration();
-            timeElapsed = (System.currentTimeMillis() - t0);
-            bestCost = getBestCandidate().getCost();
-            numIterations++;
-            for (TerminationCriteria tc : criterias) {
-                if (tc.souldTerminate(new TerminationData(bestCost, timeElapsed, numIterations))) {
-                    terminate = true;
+        try {
+            while (!terminate) {
+                long start = System.nanoTime();
+                long evaluationsBefore = numEvaluations;
+                singleIteration();
+                poll.numIterations++;
+                TerminationData data = poll.data();
+                numEvaluations = data.numEvaluations;
+                terminate = token.isCancelled();
+                for (TerminationCriteria tc : criterias) {
+                    if (tc.souldTerminate(data)) {
+                        terminate = true;
+                    }
+                }
+                long end = (System.nanoTime() - start);
+                if (trackCandidatePerformance) {
+                    timeSeries.add(end, data.bestCost, numEvaluations - evaluationsBefore);
                 }
             }
-            long end = (System.nanoTime() - start);
-            if (trackCandidatePerformance) {
-                timeSeries.add(end, bestCost);
-            }
+        } finally {
+            afterCompute();
+            this.cancellationToken = null;
+        }
+        Candidate<E> best = getBestCandidate();
+        return new CandidateSolution(best, best.getCost(), poll.numIterations, System.currentTimeMillis() - poll.t0, numEvaluations);
+    }
+
+    /**
+     * Invoked when compute() returns, also on failure. Algorithms keeping
+     * work running across iterations, e.g. on a SteadyStateEngine, stop it
+     * here.
+     */
+    protected void afterCompute() {
+    }
+
+    /**
+     * Makes a running compute() return as soon as possible. Algorithms and
+     * evaluators checking isCancelled() stop within about one evaluation,
+     * others after the current iteration. Can be invoked from any thread, and
+     * has no effect if compute() is not running.
+     */
+    public void cancel() {
+        CancellationToken token = cancellationToken;
+        if (token != null) {
+            token.cancel();
         }
-        return new CandidateSolution(getBestCandidate(), getBestCandidate().getCost(), numIterations, timeElapsed);
+    }
+
+    /**
+     * Whether or not the running compute() should stop, either because
+     * cancel() was invoked or because a termination criteria is met. The
+     * criterias are only polled here if a termination check interval has
+     * been set, and then at most once per interval, so
+     * this is cheap enough to be checked for every evaluation. Long
+     * iterations should check it in their inner loops, and return early
+     * leaving the algorithm in a consistent state.
+     *
+     * @return true if the iteration should be cut short, false otherwise
+     */
+    protected boolean isCancelled() {
+        CancellationToken token = cancellationToken;
+        return token != null && token.isCancelled();
+    }
+
+    /**
+     * Getter for the minimum time between two polls of the termination
+     * criterias inside an iteration
+     *
+     * @return the interval in milliseconds
+     */
+    public long getTerminationCheckInterval() {
+        return terminationCheckInterval;
+    }
+
+    /**
+     * Sets the minimum time between two polls of the termination criterias
+     * inside an iteration, which bounds how far time-boxed runs overshoot.
+     * The criterias are always checked after each iteration. The default of
+     * 0 only checks them between iterations, so seeded runs stay
+     * reproducible. Time-boxed callers may opt in with e.g. 1 ms, at the
+     * price of iterations being cut short at a time dependent point.
+     *
+     * @param terminationCheckInterval the interval in milliseconds, or 0
+     */
+    public void setTerminationCheckInterval(long terminationCheckInterval) {
+        if (terminationCheckInterval < 0) {
+            throw new IllegalArgumentException("The termination check interval cannot be negative, was " + terminationCheckInterval);
+        }
+        this.terminationCheckInterval = terminationCheckInterval;
+    }
+
+    /**
+     * Getter for the number of cost function evaluations counted by the
+     * evaluator of the algorithm. compute() reports the evaluations made
+     * since it was invoked to the termination criterias. Note that the
+     * counter also includes evaluations made by other algorithms sharing
+     * the same evaluator.
+     *
+     * @return the number of evaluations
+     */
+    public long getEvaluations() {
+        return evaluator.getEvaluations();
     }
 
     /**
@@ -281,7 +485,7 @@ public abstract class Algorithm<E> implements Serializable {
         try (
                 BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName)))) {
             for (int i = 0; i < timeSeries.size(); i++) {
-                sb.append(timeSeries.getIterations()[i]).append("\t").append(timeSeries.getTimestamps()[i]).append("\t").append(timeSeries.getCosts()[i]).append("\n");
+                sb.append(timeSeries.getIterations()[i]).append("\t").append(timeSeries.getTimestamps()[i]).append("\t").append(timeSeries.getCosts()[i]).append("\t").append(timeSeries.getEvaluations()[i]).append("\n");
             }
             bw.write(sb.toString());
             bw.flush();
@@ -365,4 +569,35 @@ public abstract class Algorithm<E> implements Serializable {
         return name;
     }
 
+
+    /**
+     * Builds the termination data of a running compute(), and checks the
+     * criterias against it
+     */
+    private class TerminationPoll implements BooleanSupplier {
+
+        private final TerminationCriteria[] criterias;
+        private final long t0 = System.currentTimeMillis();
+        private final long e0 = getEvaluations();
+        private volatile int numIterations;
+
+        TerminationPoll(TerminationCriteria[] criterias) {
+            this.criterias = criterias;
+        }
+
+        TerminationData data() {
+            return new TerminationData(getBestCost(), System.currentTimeMillis() - t0, numIterations, getEvaluations() - e0);
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            TerminationData data = data();
+            for (TerminationCriteria tc : criterias) {
+                if (tc.souldTerminate(data)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -45,6 +45,40 @@ public class AlgorithmCollection<E> extends ArrayList<Algorithm<E>> {
 
     private final XYSeriesCollection xySeriesCollection = new XYSeriesCollection();
 
+    private ExecutionContext executionContext;
+
+    /**
+     * Getter for the execution context shared by the algorithms
+     *
+     * @return the shared execution context, or null if each algorithm uses
+     * its own
+     */
+    public ExecutionContext getExecutionContext() {
+        return executionContext;
+    }
+
+    /**
+     * Makes all the algorithms in the collection, including those added
+     * later, run on the same execution context. The collection does not take
+     * ownership of the context.
+     *
+     * @param executionContext the execution context to share
+     */
+    public void setExecutionContext(ExecutionContext executionContext) {
+        this.executionContext = executionContext;
+        for (Algorithm<E> alg : this) {
+            alg.setExecutionContext(executionContext);
+        }
+    }
+
+    @Override
+    public boolean add(Algorithm<E> alg) {
+        if (executionContext != null) {
+            alg.setExecutionContext(executionContext);
+        }
+        return super.add(alg);
+    }
+
     /**
      * Invoking this methods runs each algorithm the specified amount of time.
      * Used for warming up the JVM. Important if you want to get correct
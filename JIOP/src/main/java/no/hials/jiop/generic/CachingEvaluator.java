@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * An evaluator which remembers the cost of previously evaluated elements,
+ * and only delegates to the wrapped evaluator on a cache miss. The cache is
+ * a bounded, least recently used store, split into independently locked
+ * segments so it can be shared by multi-threaded algorithms. If several
+ * threads miss on the same key at the same time, only the first one calls
+ * the wrapped evaluator, and the others wait for its result.
+ *
+ * By default elements are keyed on their exact content. For continuous
+ * domains a quantum can be given, in which case elements whose values round
+ * to the same multiple of the quantum share a cache entry.
+ *
+ * By default getEvaluations() reports the evaluations of the wrapped
+ * evaluator, i.e. the misses, so that evaluation budgets are only spent on
+ * real evaluations. Use setCountHits(true) to count every request instead.
+ *
+ * @author Lars Ivar Hatledal
+ * @param <E>
+ */
+public class CachingEvaluator<E> extends Evaluator<E> {
+
+    private static final int NUM_SEGMENTS = 16;
+
+    private final Evaluator<E> evaluator;
+    private final Function<? super E, ?> keyFunction;
+    private final Segment[] segments;
+    private final int capacity;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile boolean countHits;
+
+    /**
+     * Creates a cache keyed on the exact content of the elements
+     *
+     * @param evaluator the evaluator to wrap
+     * @param capacity the maximum number of cached costs
+     */
+    public CachingEvaluator(Evaluator<E> evaluator, int capacity) {
+        this(evaluator, capacity, 0);
+    }
+
+    /**
+     * Creates a cache keyed on the quantized content of the elements
+     *
+     * @param evaluator the evaluator to wrap
+     * @param capacity the maximum number of cached costs
+     * @param quantum the quantization step, or 0 for exact keys
+     */
+    public CachingEvaluator(Evaluator<E> evaluator, int capacity, double quantum) {
+        this(evaluator, capacity, contentKey(quantum));
+    }
+
+    /**
+     * Creates a cache using a custom key function. The returned keys must
+     * implement equals() and hashCode(), and must not share state with the
+     * elements, as the elements may be modified after evaluation.
+     *
+     * @param evaluator the evaluator to wrap
+     * @param capacity the maximum number of cached costs
+     * @param keyFunction maps elements to cache keys
+     */
+    public CachingEvaluator(Evaluator<E> evaluator, int capacity, Function<? super E, ?> keyFunction) {
+        super(evaluator.getDimension());
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1, was " + capacity);
+        }
+        this.evaluator = evaluator;
+        this.keyFunction = keyFunction;
+        this.capacity = capacity;
+        int numSegments = Math.min(NUM_SEGMENTS, capacity);
+        this.segments = new Segment[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            segments[i] = new Segment(capacity / numSegments + (i < capacity % numSegments ? 1 : 0));
+        }
+    }
+
+    @Override
+    public double getCost(E elements) {
+        Object key = keyFunction.apply(elements);
+        Segment segment = segments[Math.floorMod(spread(key.hashCode()), segments.length)];
+        CompletableFuture<Double> pending;
+        CompletableFuture<Double> future = null;
+        synchronized (segment) {
+            Double cost = segment.get(key);
+            if (cost != null) {
+                hits.incrementAndGet();
+                return cost;
+            }
+            pending = segment.pending.get(key);
+            if (pending == null) {
+                future = new CompletableFuture<>();
+                segment.pending.put(key, future);
+            }
+        }
+        if (pending != null) {
+            hits.incrementAndGet();
+            return await(pending);
+        }
+        misses.incrementAndGet();
+        double value;
+        try {
+            value = evaluator.evaluateElements(elements);
+        } catch (RuntimeException | Error ex) {
+            synchronized (segment) {
+                segment.pending.remove(key);
+            }
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+        synchronized (segment) {
+            segment.put(key, value);
+            segment.pending.remove(key);
+        }
+        future.complete(value);
+        return value;
+    }
+
+    /**
+     * Waits for the evaluation of another thread, rethrowing its exception
+     * if it failed
+     */
+    private static double await(CompletableFuture<Double> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            } else if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Getter for the number of evaluations. Unless setCountHits(true) has
+     * been called, this is the number of evaluations of the wrapped
+     * evaluator, so cache hits do not count.
+     *
+     * @return the number of evaluations
+     */
+    @Override
+    public long getEvaluations() {
+        return countHits ? super.getEvaluations() : evaluator.getEvaluations();
+    }
+
+    /**
+     * Resets the evaluation counters of both the cache and the wrapped
+     * evaluator
+     */
+    @Override
+    public void resetEvaluations() {
+        super.resetEvaluations();
+        evaluator.resetEvaluations();
+    }
+
+    /**
+     * Sets whether or not getEvaluations() counts cache hits. Off by
+     * default, so that only evaluations delegated to the wrapped evaluator
+     * are counted.
+     *
+     * @param countHits true to count every request, false to count misses
+     */
+    public void setCountHits(boolean countHits) {
+        this.countHits = countHits;
+    }
+
+    /**
+     * Whether or not getEvaluations() counts cache hits
+     *
+     * @return true if every request is counted, false if only misses are
+     */
+    public boolean isCountHits() {
+        return countHits;
+    }
+
+    /**
+     * Getter for the wrapped evaluator
+     *
+     * @return the wrapped evaluator
+     */
+    public Evaluator<E> getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Getter for the number of cache hits
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Getter for the number of cache misses, i.e. the number of evaluations
+     * delegated to the wrapped evaluator
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Getter for the fraction of lookups that were hits
+     *
+     * @return the hit rate, or 0 if nothing has been evaluated yet
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Getter for the maximum number of cached costs
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Getter for the current number of cached costs
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all entries, and resets the statistics
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "CachingEvaluator{" + "size=" + size() + ", capacity=" + capacity + ", hits=" + hits + ", misses=" + misses + '}';
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Creates a key function for the element types used in this library
+     * (double[], float[] and lists of numbers). Other types are used as
+     * their own key.
+     *
+     * @param quantum the quantization step, or 0 for exact keys
+     * @return the key function
+     */
+    public static Function<Object, Object> contentKey(double quantum) {
+        if (quantum < 0) {
+            throw new IllegalArgumentException("Quantum cannot be negative, was " + quantum);
+        }
+        return elements -> {
+            if (elements instanceof double[]) {
+                double[] array = (double[]) elements;
+                long[] key = new long[array.length];
+                for (int i = 0; i < array.length; i++) {
+                    key[i] = quantize(array[i], quantum);
+                }
+                return new ArrayKey(key);
+            } else if (elements instanceof float[]) {
+                float[] array = (float[]) elements;
+                long[] key = new long[array.length];
+                for (int i = 0; i < array.length; i++) {
+                    key[i] = quantize(array[i], quantum);
+                }
+                return new ArrayKey(key);
+            } else if (elements instanceof List) {
+                List<?> list = (List<?>) elements;
+                long[] key = new long[list.size()];
+                for (int i = 0; i < key.length; i++) {
+                    key[i] = quantize(((Number) list.get(i)).doubleValue(), quantum);
+                }
+                return new ArrayKey(key);
+            }
+            return elements;
+        };
+    }
+
+    private static long quantize(double value, double quantum) {
+        return quantum == 0 ? Double.doubleToLongBits(value) : Math.round(value / quantum);
+    }
+
+    /**
+     * A copied, immutable array key
+     */
+    private static final class ArrayKey {
+
+        private final long[] values;
+        private final int hash;
+
+        ArrayKey(long[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ArrayKey && ((ArrayKey) obj).hash == hash && Arrays.equals(((ArrayKey) obj).values, values);
+        }
+    }
+
+    /**
+     * An access ordered map which evicts the least recently used entry. Also
+     * holds the evaluations in flight for keys in this segment.
+     */
+    private static final class Segment extends LinkedHashMap<Object, Double> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+        private final transient Map<Object, CompletableFuture<Double>> pending = new HashMap<>();
+
+        Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Double> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
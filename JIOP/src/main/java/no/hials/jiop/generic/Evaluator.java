@@ -26,18 +26,40 @@
 
 package no.hials.jiop.generic;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.candidates.DoubleVector;
+import no.hials.jiop.generic.temination.CancellationToken;
 
 
 /**
- * Interface used for evaluating performance of the candidates
+ * Interface used for evaluating performance of the candidates.
+ * Every evaluation going through evaluate(), evaluateElements(),
+ * evaluateRows() or evaluateAll() is counted, see getEvaluations(). Calling
+ * getCost() directly bypasses the counter.
  * @author Lars Ivar Hatledal
  * @param <E>
  */
 public abstract class Evaluator<E> {
+    /**
+     * The number of rows evaluated between cancellation checks when a
+     * VectorizedEvaluator runs on the calling thread
+     */
+    private static final int CANCELLABLE_CHUNK_SIZE = 16;
+
     private final int dimension;
 
+    private int parallelism = 1;
+    private int chunkSize = 0;
+    private ExecutionContext context;
+    private boolean ownsContext;
+    private boolean explicitContext;
+    private boolean inheritedContext;
+
+    private final AtomicLong evaluations = new AtomicLong();
+
     /**
      * Default constructor
      * @param dimension the problem dimensionality
@@ -60,22 +82,344 @@ public abstract class Evaluator<E> {
      * @return the same candiate instance, where the cost have been updated
      */
     public Candidate<E> evaluate(Candidate<E> candidate) {
-        candidate.setCost(getCost(candidate.getElements()));
+        candidate.setCost(evaluateElements(candidate.getElements()));
         return candidate;
     }
+
+    /**
+     * Calculates the cost of the elements, and counts the evaluation.
+     * Algorithms working directly on the elements should use this rather
+     * than getCost()
+     * @param elements the elements to evaluate
+     * @return the cost of the elements
+     */
+    public double evaluateElements(E elements) {
+        evaluations.incrementAndGet();
+        return getCost(elements);
+    }
+
+    /**
+     * Calculates the costs of the rows [fromRow, toRow) of a row-major
+     * matrix, and counts the evaluations. Requires the evaluator to be a
+     * VectorizedEvaluator.
+     *
+     * @param elements the row-major matrix holding the candidates
+     * @param dimension the number of elements per row
+     * @param fromRow the first row to evaluate
+     * @param toRow the end of the range (exclusive)
+     * @param costs array receiving the cost of row i at index i
+     * @throws UnsupportedOperationException if the evaluator is not a
+     * VectorizedEvaluator
+     */
+    public void evaluateRows(double[] elements, int dimension, int fromRow, int toRow, double[] costs) {
+        if (!(this instanceof VectorizedEvaluator)) {
+            throw new UnsupportedOperationException(getClass().getName() + " is not a VectorizedEvaluator");
+        }
+        evaluations.addAndGet(toRow - fromRow);
+        ((VectorizedEvaluator) this).getCosts(elements, dimension, fromRow, toRow, costs);
+    }
+
+    /**
+     * Getter for the number of evaluations since creation or the last
+     * resetEvaluations(). The counter is shared by every algorithm and
+     * thread using this evaluator.
+     *
+     * @return the number of evaluations
+     */
+    public long getEvaluations() {
+        return evaluations.get();
+    }
+
+    /**
+     * Resets the evaluation counter
+     */
+    public void resetEvaluations() {
+        evaluations.set(0);
+    }
+
+    /**
+     * Adds evaluations to the counter. Intended for subclasses overriding
+     * evaluateAll() without going through evaluate().
+     *
+     * @param count the number of evaluations performed
+     */
+    protected void countEvaluations(long count) {
+        evaluations.addAndGet(count);
+    }
     
     /**
-     * Evaluates all the candidates in the list
+     * Evaluates all the dirty candidates in the list. Candidates whose cost
+     * is still valid (see Candidate.isDirty()) are skipped. If the
+     * parallelism is greater than one, the candidates are split into chunks
+     * which are evaluated in parallel, and the call returns once every
+     * candidate has been evaluated.
+     * If the evaluator is a VectorizedEvaluator, the dirty candidates are
+     * copied into a matrix and evaluated in batches instead.
+     * Note: getCost() must be thread safe when running in parallel.
+     *
      * @param candidates the candidates to evaluate
      * @return the updated candidates
      */
     public List<Candidate<E>> evaluateAll(List<Candidate<E>> candidates) {
+        return evaluateAll(candidates, null);
+    }
+
+    /**
+     * Evaluates all the dirty candidates in the list, as evaluateAll(), but
+     * checks the token between candidates (between batches for a
+     * VectorizedEvaluator). Once the token is cancelled the remaining
+     * candidates are skipped, invalidated and given the cost Double.MAX_VALUE
+     * so they never pass as improvements.
+     *
+     * @param candidates the candidates to evaluate
+     * @param token the cancellation token, or null
+     * @return the updated candidates
+     */
+    public List<Candidate<E>> evaluateAll(List<Candidate<E>> candidates, final CancellationToken token) {
+        if (this instanceof VectorizedEvaluator) {
+            return evaluateVectorized(candidates, token);
+        }
+        if (parallelism <= 1 || candidates.size() < 2) {
+            for (Candidate<E> c : candidates) {
+                if (c.isDirty()) {
+                    if (isCancelled(token)) {
+                        markSkipped(c);
+                    } else {
+                        evaluate(c);
+                    }
+                }
+            }
+            return candidates;
+        }
+        final List<Candidate<E>> dirty = new ArrayList<>(candidates.size());
         for (Candidate<E> c : candidates) {
-            evaluate(c);
+            if (c.isDirty()) {
+                dirty.add(c);
+            }
+        }
+        final int n = dirty.size();
+        if (n == 0) {
+            return candidates;
         }
+        ExecutionContext executionContext = getExecutionContext();
+        final int chunk = chunkSize(executionContext, n);
+        executionContext.invokeAll((n + chunk - 1) / chunk, task -> {
+            int hi = Math.min(n, (task + 1) * chunk);
+            for (int i = task * chunk; i < hi; i++) {
+                if (isCancelled(token)) {
+                    markSkipped(dirty.get(i));
+                } else {
+                    evaluate(dirty.get(i));
+                }
+            }
+        });
         return candidates;
     }
-    
+
+    private List<Candidate<E>> evaluateVectorized(List<Candidate<E>> candidates, final CancellationToken token) {
+        final List<Candidate<E>> dirty = new ArrayList<>(candidates.size());
+        for (Candidate<E> c : candidates) {
+            if (c.isDirty()) {
+                dirty.add(c);
+            }
+        }
+        final int n = dirty.size();
+        if (n == 0) {
+            return candidates;
+        }
+        final int dim = dimension;
+        final double[] matrix = new double[n * dim];
+        final double[] costs = new double[n];
+        for (int i = 0; i < n; i++) {
+            Candidate<E> c = dirty.get(i);
+            if (!(c instanceof DoubleVector)) {
+                throw new IllegalArgumentException("Vectorized evaluation requires numeric candidates, got " + c.getClass().getName());
+            }
+            DoubleVector v = (DoubleVector) c;
+            for (int j = 0, o = i * dim; j < dim; j++) {
+                matrix[o + j] = v.getDouble(j);
+            }
+        }
+        final int chunk;
+        if (parallelism <= 1 || n < 2) {
+            chunk = token == null ? n : (chunkSize > 0 ? chunkSize : CANCELLABLE_CHUNK_SIZE);
+        } else {
+            chunk = chunkSize > 0 ? chunkSize : Math.max(1, n / (parallelism * 4));
+        }
+        final int numChunks = (n + chunk - 1) / chunk;
+        final boolean[] done = new boolean[numChunks];
+        if (parallelism <= 1 || n < 2) {
+            for (int task = 0; task < numChunks && !isCancelled(token); task++) {
+                evaluateRows(matrix, dim, task * chunk, Math.min(n, (task + 1) * chunk), costs);
+                done[task] = true;
+            }
+        } else {
+            getExecutionContext().invokeAll(numChunks, task -> {
+                if (!isCancelled(token)) {
+                    evaluateRows(matrix, dim, task * chunk, Math.min(n, (task + 1) * chunk), costs);
+                    done[task] = true;
+                }
+            });
+        }
+        for (int i = 0; i < n; i++) {
+            if (done[i / chunk]) {
+                dirty.get(i).setCost(costs[i]);
+            } else {
+                markSkipped(dirty.get(i));
+            }
+        }
+        return candidates;
+    }
+
+    private static boolean isCancelled(CancellationToken token) {
+        return token != null && token.isCancelled();
+    }
+
+    /**
+     * Marks a candidate which was not evaluated because of cancellation. It
+     * gets the cost Double.MAX_VALUE and is invalidated.
+     *
+     * @param candidate the skipped candidate
+     */
+    protected void markSkipped(Candidate<E> candidate) {
+        candidate.setElements(candidate.getElements(), Double.MAX_VALUE);
+        candidate.invalidate();
+    }
+
+    private int chunkSize(ExecutionContext executionContext, int n) {
+        if (chunkSize > 0) {
+            return chunkSize;
+        } else if (executionContext.getBackend() == ExecutionContext.Backend.VIRTUAL) {
+            return 1;
+        }
+        return Math.max(1, n / (parallelism * 4));
+    }
+
+    /**
+     * Getter for the number of threads used by evaluateAll()
+     *
+     * @return the parallelism level
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads used by evaluateAll(). A value of one (the
+     * default) evaluates the candidates sequentially on the calling thread.
+     *
+     * @param parallelism the parallelism level
+     */
+    public synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism);
+        }
+        if (context != null && !inheritedContext && parallelism != this.parallelism) {
+            releaseContext();
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Makes evaluateAll() run on the given execution context, typically one
+     * shared with the algorithms. The parallelism is set to that of the
+     * context. The evaluator does not take ownership of the context.
+     *
+     * @param context the execution context
+     */
+    public synchronized void setExecutionContext(ExecutionContext context) {
+        releaseContext();
+        this.context = context;
+        this.explicitContext = true;
+        this.parallelism = context.getParallelism();
+    }
+
+    /**
+     * Lets evaluateAll() run on the execution context of the algorithm using
+     * this evaluator, so the two do not compete with separate thread pools.
+     * Has no effect if a context has been given explicitly through
+     * setExecutionContext() or setVirtualThreads(). The parallelism level is
+     * left as is.
+     *
+     * @param context the execution context of the algorithm
+     */
+    synchronized void inheritExecutionContext(ExecutionContext context) {
+        if (explicitContext || context == null || context == this.context) {
+            return;
+        }
+        releaseContext();
+        this.context = context;
+        this.inheritedContext = true;
+    }
+
+    /**
+     * Getter for the execution context used by evaluateAll(). If none has
+     * been set or inherited from an algorithm, a ForkJoin context with the
+     * configured parallelism is created on first use.
+     *
+     * @return the execution context
+     */
+    public synchronized ExecutionContext getExecutionContext() {
+        if (context == null) {
+            context = ExecutionContext.forkJoin(parallelism);
+            ownsContext = true;
+        }
+        return context;
+    }
+
+    /**
+     * Makes evaluateAll() run each evaluation on its own virtual thread, with
+     * at most maxConcurrency evaluations in flight at the same time. Intended
+     * for cost functions that mostly wait, e.g. on an external solver process
+     * or on file I/O, where thousands of evaluations can overlap their waits.
+     * Requires Java 21 or newer at runtime.
+     *
+     * @param maxConcurrency the maximum number of concurrent evaluations
+     * @throws UnsupportedOperationException if the running JVM does not
+     * support virtual threads
+     */
+    public synchronized void setVirtualThreads(int maxConcurrency) {
+        ExecutionContext virtual = ExecutionContext.virtual(maxConcurrency);
+        releaseContext();
+        this.context = virtual;
+        this.ownsContext = true;
+        this.explicitContext = true;
+        this.parallelism = maxConcurrency;
+    }
+
+    private void releaseContext() {
+        if (ownsContext) {
+            context.close();
+        }
+        context = null;
+        ownsContext = false;
+        explicitContext = false;
+        inheritedContext = false;
+    }
+
+    /**
+     * Getter for the number of candidates evaluated per parallel task
+     *
+     * @return the chunk size, or 0 if it is chosen automatically
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the number of candidates evaluated per parallel task. A value of 0
+     * (the default) splits the list into roughly four chunks per thread, or
+     * one candidate per task when running on virtual threads.
+     *
+     * @param chunkSize the chunk size
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 0) {
+            throw new IllegalArgumentException("Chunk size cannot be negative, was " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
     /**
      * Calcualtes the cost of the element
      * @param elements the element calculate the cost of
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A bounded executor shared by algorithms and evaluators. Tasks submitted
+ * from a thread that already is a worker of the same context are run on the
+ * calling thread, so nested parallel sections (e.g. an algorithm tuned by
+ * another algorithm) cannot deadlock the pool.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public final class ExecutionContext implements Executor, AutoCloseable {
+
+    /**
+     * The available thread backends
+     */
+    public enum Backend {
+
+        FORK_JOIN, FIXED, VIRTUAL
+    }
+
+    private static final ThreadLocal<ExecutionContext> CURRENT = new ThreadLocal<>();
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private static final Method VIRTUAL_FACTORY = findVirtualFactory();
+
+    private static volatile ExecutionContext defaultContext;
+
+    private final Backend backend;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final boolean shared;
+
+    private ExecutionContext(Backend backend, int parallelism, ExecutorService executor, Semaphore permits, boolean shared) {
+        this.backend = backend;
+        this.parallelism = parallelism;
+        this.executor = executor;
+        this.permits = permits;
+        this.shared = shared;
+    }
+
+    /**
+     * Creates a context backed by a ForkJoinPool
+     *
+     * @param parallelism the number of worker threads
+     * @return a new context
+     */
+    public static ExecutionContext forkJoin(int parallelism) {
+        checkParallelism(parallelism);
+        return new ExecutionContext(Backend.FORK_JOIN, parallelism, new ForkJoinPool(parallelism), null, false);
+    }
+
+    /**
+     * Creates a context backed by a fixed pool of daemon threads
+     *
+     * @param parallelism the number of worker threads
+     * @return a new context
+     */
+    public static ExecutionContext fixed(int parallelism) {
+        checkParallelism(parallelism);
+        final int id = POOL_COUNT.incrementAndGet();
+        final AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "jiop-" + id + "-worker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        return new ExecutionContext(Backend.FIXED, parallelism, Executors.newFixedThreadPool(parallelism, factory), null, false);
+    }
+
+    /**
+     * Creates a context which runs every task on its own virtual thread. At
+     * most parallelism tasks run at the same time. Requires Java 21 or newer
+     * at runtime.
+     *
+     * @param parallelism the maximum number of concurrently running tasks
+     * @return a new context
+     * @throws UnsupportedOperationException if virtual threads are not
+     * available on the running JVM
+     */
+    public static ExecutionContext virtual(int parallelism) {
+        checkParallelism(parallelism);
+        if (!isVirtualThreadSupported()) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or newer, running " + System.getProperty("java.version"));
+        }
+        ExecutorService executor;
+        try {
+            executor = (ExecutorService) VIRTUAL_FACTORY.invoke(null);
+        } catch (IllegalAccessException ex) {
+            throw new UnsupportedOperationException("Unable to create virtual thread executor", ex);
+        } catch (InvocationTargetException ex) {
+            throw new UnsupportedOperationException("Unable to create virtual thread executor", ex.getCause());
+        }
+        return new ExecutionContext(Backend.VIRTUAL, parallelism, executor, new Semaphore(parallelism), false);
+    }
+
+    /**
+     * Get the JVM wide default context. It is a ForkJoin context with one
+     * thread per available processor, and it cannot be closed.
+     *
+     * @return the default context
+     */
+    public static ExecutionContext getDefault() {
+        if (defaultContext == null) {
+            synchronized (ExecutionContext.class) {
+                if (defaultContext == null) {
+                    int n = Runtime.getRuntime().availableProcessors();
+                    defaultContext = new ExecutionContext(Backend.FORK_JOIN, n, new ForkJoinPool(n), null, true);
+                }
+            }
+        }
+        return defaultContext;
+    }
+
+    /**
+     * Whether or not the running JVM supports virtual threads
+     *
+     * @return true if virtual() can be used, false otherwise
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_FACTORY != null;
+    }
+
+    private static Method findVirtualFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException | SecurityException ex) {
+            return null;
+        }
+    }
+
+    private static void checkParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, was " + parallelism);
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (CURRENT.get() == this) {
+            command.run();
+            return;
+        }
+        executor.execute(() -> runAsWorker(command));
+    }
+
+    /**
+     * Runs the command as a worker of this context, holding a permit if the
+     * number of concurrent tasks is bounded
+     */
+    private void runAsWorker(Runnable command) {
+        if (permits != null) {
+            permits.acquireUninterruptibly();
+        }
+        ExecutionContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            command.run();
+        } finally {
+            CURRENT.set(previous);
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Runs task.accept(i) for every i in [0, numTasks), and returns once all
+     * of them have completed. The calling thread runs the last task itself.
+     * On a virtual context the calling thread takes a permit for that task
+     * as well, so no more than parallelism tasks run at the same time.
+     *
+     * @param numTasks the number of tasks
+     * @param task the task to run
+     */
+    public void invokeAll(int numTasks, IntConsumer task) {
+        if (numTasks <= 1 || CURRENT.get() == this) {
+            for (int i = 0; i < numTasks; i++) {
+                task.accept(i);
+            }
+            return;
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Future<Void>[] futures = new Future[numTasks - 1];
+        for (int i = 0; i < numTasks - 1; i++) {
+            final int index = i;
+            FutureTask<Void> future = new FutureTask<>(() -> task.accept(index), null);
+            futures[i] = future;
+            execute(future);
+        }
+        Throwable failure = null;
+        try {
+            if (permits != null) {
+                runAsWorker(() -> task.accept(numTasks - 1));
+            } else {
+                task.accept(numTasks - 1);
+            }
+        } catch (RuntimeException | Error ex) {
+            failure = ex;
+        }
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Error: Interrupted while waiting for tasks!", ex);
+            } catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause();
+                }
+            }
+        }
+        if (failure != null) {
+            throw new RuntimeException("Error: A parallel task failed!", failure);
+        }
+    }
+
+    /**
+     * Whether or not the calling thread is a worker of this context
+     *
+     * @return true if the calling thread is a worker, false otherwise
+     */
+    public boolean isWorkerThread() {
+        return CURRENT.get() == this;
+    }
+
+    /**
+     * Getter for the backend
+     *
+     * @return the backend
+     */
+    public Backend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Getter for the maximum number of concurrently running tasks
+     *
+     * @return the parallelism level
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Getter for the underlying executor
+     *
+     * @return the executor
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Whether or not this context has been closed
+     *
+     * @return true if closed, false otherwise
+     */
+    public boolean isClosed() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Shuts down the executor, and waits for running tasks to finish. Has no
+     * effect on the default context.
+     */
+    @Override
+    public void close() {
+        if (shared) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            Logger.getLogger(ExecutionContext.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionContext{" + "backend=" + backend + ", parallelism=" + parallelism + '}';
+    }
+}
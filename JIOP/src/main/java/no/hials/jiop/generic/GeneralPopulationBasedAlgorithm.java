@@ -60,6 +60,40 @@ public abstract class GeneralPopulationBasedAlgorithm<E> extends Algorithm<E> im
         return population.get(0);
     }
 
+    @Override
+    public List<Candidate<E>> emigrate(int count) {
+        List<Candidate<E>> sorted = new ArrayList<>(population);
+        Collections.sort(sorted);
+        return copyOf(sorted.subList(0, Math.min(count, sorted.size())));
+    }
+
+    /**
+     * Replaces the worst candidates in the population with the migrants that
+     * are better than them
+     *
+     * @param migrants the migrants
+     */
+    @Override
+    public void immigrate(List<Candidate<E>> migrants) {
+        sortCandidates();
+        int last = population.size() - 1;
+        for (Candidate<E> migrant : migrants) {
+            if (last >= 0 && migrant.getCost() < population.get(last).getCost()) {
+                population.set(last--, adopt(migrant));
+            }
+            setBestCandidateIfBetter(migrant);
+        }
+        sortCandidates();
+    }
+
+    private static <E> List<Candidate<E>> copyOf(List<Candidate<E>> candidates) {
+        List<Candidate<E>> copies = new ArrayList<>(candidates.size());
+        for (Candidate<E> c : candidates) {
+            copies.add(c.copy());
+        }
+        return copies;
+    }
+
     @Override
     public double getAverageCost() {
         double avg = 0;
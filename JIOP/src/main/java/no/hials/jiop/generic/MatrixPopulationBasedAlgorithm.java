@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.candidates.PopulationMatrix;
+import no.hials.jiop.generic.factories.DoubleArrayCandidateFactory;
+import no.hials.jiop.util.RandomSource;
+
+/**
+ * General partial implementation of a population based algorithm working
+ * directly on a PopulationMatrix, rather than on a list of candidates. When
+ * the parallelism of the evaluator is greater than one, ranges of rows are
+ * evaluated in parallel chunks on the execution context of the evaluator.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public abstract class MatrixPopulationBasedAlgorithm extends Algorithm<double[]> implements PopulationBasedAlgorithm {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of rows passed to a VectorizedEvaluator between cancellation
+     * checks
+     */
+    private static final int VECTORIZED_BLOCK_SIZE = 64;
+
+    protected int size;
+    protected PopulationMatrix population;
+
+    public MatrixPopulationBasedAlgorithm(int size, Evaluator<double[]> evaluator, String name) {
+        super(new DoubleArrayCandidateFactory(), evaluator, name);
+        this.size = size;
+    }
+
+    @Override
+    protected Candidate<double[]> subInit() {
+        this.population = new PopulationMatrix(size, getDimension());
+        population.randomize(RandomSource.current());
+        evaluateAll(population);
+        return population.toCandidate(population.bestIndex());
+    }
+
+    @Override
+    protected Candidate<double[]> subInit(List<double[]> seeds) {
+        if (seeds.size() > size) {
+            throw new IllegalArgumentException();
+        }
+        this.population = new PopulationMatrix(size, getDimension());
+        population.randomize(RandomSource.current());
+        for (int i = 0; i < seeds.size(); i++) {
+            population.setRow(i, seeds.get(i), Double.MAX_VALUE);
+        }
+        evaluateAll(population);
+        return population.toCandidate(population.bestIndex());
+    }
+
+    /**
+     * Evaluates a single candidate in the matrix and updates its cost
+     *
+     * @param matrix the population holding the candidate
+     * @param index the candidate index
+     * @return the cost of the candidate
+     */
+    protected double evaluate(PopulationMatrix matrix, int index) {
+        return evaluate(matrix, index, new double[matrix.getDimension()]);
+    }
+
+    private double evaluate(PopulationMatrix matrix, int index, double[] row) {
+        matrix.getRow(index, row);
+        double cost = getEvaluator().evaluateElements(row);
+        matrix.setCost(index, cost);
+        return cost;
+    }
+
+    /**
+     * Evaluates the candidates in the range [fromIndex, toIndex) of the
+     * matrix. If the evaluator is a VectorizedEvaluator the range is passed
+     * to it in blocks of rows. If the parallelism of the evaluator is
+     * greater than one, the range is split into chunks which are evaluated
+     * in parallel, and the call returns once every chunk is done. If the run
+     * is cancelled the remaining candidates are skipped and get the cost
+     * Double.MAX_VALUE. The matrix does not track which rows are
+     * unevaluated, so callers must not let skipped rows replace evaluated
+     * ones.
+     *
+     * @param matrix the population holding the candidates
+     * @param fromIndex the first candidate to evaluate
+     * @param toIndex the end of the range (exclusive)
+     * @return true if every candidate in the range was evaluated, false if
+     * some were skipped
+     */
+    protected boolean evaluateRange(final PopulationMatrix matrix, final int fromIndex, final int toIndex) {
+        final int n = toIndex - fromIndex;
+        Evaluator<double[]> evaluator = getEvaluator();
+        int parallelism = evaluator.getParallelism();
+        if (parallelism <= 1 || n < 2) {
+            return evaluateChunk(matrix, fromIndex, toIndex);
+        }
+        ExecutionContext executionContext = evaluator.getExecutionContext();
+        final int chunk;
+        if (evaluator.getChunkSize() > 0) {
+            chunk = evaluator.getChunkSize();
+        } else if (executionContext.getBackend() == ExecutionContext.Backend.VIRTUAL && !isVectorized()) {
+            chunk = 1;
+        } else {
+            chunk = Math.max(1, n / (parallelism * 4));
+        }
+        final AtomicBoolean complete = new AtomicBoolean(true);
+        executionContext.invokeAll((n + chunk - 1) / chunk, task -> {
+            int from = fromIndex + task * chunk;
+            if (!evaluateChunk(matrix, from, Math.min(toIndex, from + chunk))) {
+                complete.set(false);
+            }
+        });
+        return complete.get();
+    }
+
+    /**
+     * Evaluates the candidates in the range [fromIndex, toIndex) on the
+     * calling thread, skipping the rest of the range once the run is
+     * cancelled
+     */
+    private boolean evaluateChunk(PopulationMatrix matrix, int fromIndex, int toIndex) {
+        boolean vectorized = isVectorized();
+        int block = vectorized ? VECTORIZED_BLOCK_SIZE : 1;
+        double[] row = vectorized ? null : new double[matrix.getDimension()];
+        int i = fromIndex;
+        for (; i < toIndex && !isCancelled(); i += block) {
+            if (vectorized) {
+                getEvaluator().evaluateRows(matrix.getElements(), matrix.getDimension(), i, Math.min(toIndex, i + block), matrix.getCosts());
+            } else {
+                evaluate(matrix, i, row);
+            }
+        }
+        if (i >= toIndex) {
+            return true;
+        }
+        for (; i < toIndex; i++) {
+            matrix.setCost(i, Double.MAX_VALUE);
+        }
+        return false;
+    }
+
+    /**
+     * Whether or not the evaluator can evaluate a range of candidates in one
+     * call
+     *
+     * @return true if the evaluator is a VectorizedEvaluator
+     */
+    protected boolean isVectorized() {
+        return getEvaluator() instanceof VectorizedEvaluator;
+    }
+
+    /**
+     * Evaluates every candidate in the matrix
+     *
+     * @param matrix the population to evaluate
+     * @return true if every candidate was evaluated, false if the run was
+     * cancelled and some were skipped
+     */
+    protected boolean evaluateAll(PopulationMatrix matrix) {
+        return evaluateRange(matrix, 0, matrix.size());
+    }
+
+    /**
+     * Updates the best candidate if the given row is better. A candidate
+     * object is only created when the best candidate actually changes.
+     *
+     * @param matrix the population holding the candidate
+     * @param index the candidate index
+     */
+    protected void setBestCandidateIfBetter(PopulationMatrix matrix, int index) {
+        if (matrix.getCost(index) < getBestCost()) {
+            setBestCandidateIfBetter(matrix.toCandidate(index));
+        }
+    }
+
+    @Override
+    public double getAverageCost() {
+        return population.averageCost();
+    }
+
+    /**
+     * Getter for the population
+     *
+     * @return the population
+     */
+    public PopulationMatrix getPopulation() {
+        return population;
+    }
+
+    /**
+     * Get the size of the population
+     *
+     * @return the size of the population
+     */
+    public int size() {
+        return population == null ? size : population.size();
+    }
+
+    /**
+     * Getter for the initial size of the population
+     *
+     * @return the initial population size
+     */
+    public int getInitialSize() {
+        return size;
+    }
+
+    /**
+     * Sets the size of the initial population
+     *
+     * @param size the new initial population size
+     */
+    public void setInitialSize(int size) {
+        this.size = size;
+    }
+}
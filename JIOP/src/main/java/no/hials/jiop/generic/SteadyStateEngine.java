@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.util.RandomSource;
+
+/**
+ * Evaluates candidates without a generation barrier. Each worker claims a
+ * free slot, produces a candidate, evaluates it and hands it back to the
+ * rule, and then immediately moves on to the next free slot. A slow
+ * evaluation therefore only holds up its own slot, not the other workers.
+ *
+ * The first call to run() starts background workers on the execution
+ * context of the algorithm, which keep going across iterations until
+ * stop() is invoked, typically from Algorithm.afterCompute(). An iteration
+ * of the algorithm then only waits for its share of evaluations, and can
+ * poll the termination criterias and publish the best candidate while the
+ * workers continue.
+ *
+ * @author Lars Ivar Hatledal
+ * @param <E>
+ */
+public class SteadyStateEngine<E> {
+
+    private final Algorithm<E> algorithm;
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+
+    private SteadyStateRule<E> rule;
+    private AtomicIntegerArray busy;
+    private int slots;
+    private volatile boolean running;
+    private volatile Throwable failure;
+    private CountDownLatch stopped;
+
+    /**
+     * Creates an engine which evaluates with, and runs on the execution
+     * context of, the given algorithm
+     *
+     * @param algorithm the algorithm
+     */
+    public SteadyStateEngine(Algorithm<E> algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Returns once at least the given number of evaluations have been
+     * incorporated by the rule since the call, counting those of the
+     * background workers. The calling thread takes part in the work. Stops
+     * early if the algorithm is cancelled, see Algorithm.isCancelled().
+     *
+     * @param rule the update rule
+     * @param numEvaluations the number of evaluations to wait for
+     */
+    public void run(SteadyStateRule<E> rule, int numEvaluations) {
+        if (numEvaluations < 1 || rule.slots() < 1) {
+            return;
+        }
+        if (this.rule != rule) {
+            stop();
+        }
+        if (this.rule == null) {
+            start(rule);
+        }
+        SplittableRandom rng = RandomSource.current();
+        long target = completed.get() + numEvaluations;
+        while (completed.get() < target && failure == null && !algorithm.isCancelled()) {
+            step(rng);
+        }
+        Throwable t = failure;
+        if (t != null) {
+            stop();
+            throw new RuntimeException("Error: A parallel task failed!", t);
+        }
+    }
+
+    /**
+     * Starts the background workers. There is one worker less than the
+     * parallelism of the context, as the thread calling run() takes part.
+     * If that thread already is a worker of the context, for instance when
+     * the algorithm runs as an island, no background workers are started.
+     */
+    private void start(SteadyStateRule<E> rule) {
+        ExecutionContext context = algorithm.getExecutionContext();
+        this.rule = rule;
+        this.slots = rule.slots();
+        this.busy = new AtomicIntegerArray(slots);
+        this.failure = null;
+        this.running = true;
+        int workers = context.isWorkerThread() ? 0 : Math.min(context.getParallelism(), slots) - 1;
+        final CountDownLatch latch = new CountDownLatch(Math.max(0, workers));
+        this.stopped = latch;
+        for (int i = 0; i < workers; i++) {
+            context.execute(() -> {
+                try {
+                    SplittableRandom rng = RandomSource.current();
+                    while (running && !algorithm.isCancelled()) {
+                        step(rng);
+                    }
+                } catch (RuntimeException | Error ex) {
+                    failure = ex;
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+    }
+
+    /**
+     * Stops the background workers, and waits for the evaluations they have
+     * in flight to be incorporated. Does nothing if the engine is not
+     * running.
+     */
+    public void stop() {
+        if (rule == null) {
+            return;
+        }
+        running = false;
+        boolean interrupted = false;
+        while (true) {
+            try {
+                stopped.await();
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        rule = null;
+        busy = null;
+    }
+
+    private void step(SplittableRandom rng) {
+        int slot = claim();
+        try {
+            Candidate<E> candidate = rule.produce(slot, rng);
+            algorithm.evaluate(candidate);
+            rule.accept(slot, candidate);
+            completed.incrementAndGet();
+        } finally {
+            busy.set(slot, 0);
+        }
+    }
+
+    /**
+     * Claims the next free slot in round robin order. There are never more
+     * workers than slots, so a free slot always exists.
+     */
+    private int claim() {
+        while (true) {
+            int slot = Math.floorMod(cursor.getAndIncrement(), slots);
+            if (busy.compareAndSet(slot, 0, 1)) {
+                return slot;
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic;
+
+import java.util.SplittableRandom;
+import no.hials.jiop.generic.candidates.Candidate;
+
+/**
+ * The incremental update rule of an algorithm, as used by the
+ * SteadyStateEngine. The population is divided into slots (typically one per
+ * population member) and a slot is only handed to one worker at a time.
+ *
+ * @author Lars Ivar Hatledal
+ * @param <E>
+ */
+public interface SteadyStateRule<E> {
+
+    /**
+     * Getter for the number of slots
+     *
+     * @return the number of slots
+     */
+    public int slots();
+
+    /**
+     * Produces the next candidate to evaluate for the given slot. Called
+     * concurrently for different slots.
+     *
+     * @param slot the slot claimed by the calling worker
+     * @param rng the generator of the calling worker
+     * @return the candidate to evaluate
+     */
+    public Candidate<E> produce(int slot, SplittableRandom rng);
+
+    /**
+     * Incorporates an evaluated candidate into the given slot. Called
+     * concurrently for different slots.
+     *
+     * @param slot the slot claimed by the calling worker
+     * @param candidate the evaluated candidate returned by produce()
+     */
+    public void accept(int slot, Candidate<E> candidate);
+}
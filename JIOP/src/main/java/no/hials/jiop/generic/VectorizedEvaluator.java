@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic;
+
+/**
+ * Optional contract for evaluators which can evaluate many candidates in one
+ * call. The candidates are passed as a row-major matrix, so implementations
+ * can amortize setup costs, stay in cache and let the JIT vectorize the
+ * loops. Evaluator.evaluateAll() and the matrix based algorithms use it when
+ * the evaluator implements this interface.
+ *
+ * Note: getCosts() must be thread safe when running in parallel, as disjoint
+ * row ranges of the same matrix may be evaluated concurrently.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public interface VectorizedEvaluator {
+
+    /**
+     * Calculates the cost of the candidates in the rows [fromRow, toRow) of
+     * the matrix. The elements of row i are located at [i * dimension,
+     * (i + 1) * dimension), and its cost must be written to costs[i].
+     *
+     * @param elements the row-major candidate matrix
+     * @param dimension the number of elements per candidate
+     * @param fromRow the first row to evaluate
+     * @param toRow the end of the range (exclusive)
+     * @param costs the array receiving the costs
+     */
+    public void getCosts(double[] elements, int dimension, int fromRow, int toRow, double[] costs);
+}
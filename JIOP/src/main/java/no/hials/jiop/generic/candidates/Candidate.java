@@ -51,4 +51,19 @@ public interface Candidate<E> extends Serializable, Iterable, Comparable<Candida
     public Candidate<E> neighbor(double proximity);
 
     public Candidate<E> copy();
+
+    /**
+     * Whether or not the elements may have changed since the cost was last
+     * set. Dirty candidates are evaluated by Evaluator.evaluateAll(), clean
+     * ones are skipped.
+     *
+     * @return true if the cost is not known to be valid, false otherwise
+     */
+    public boolean isDirty();
+
+    /**
+     * Marks the cost as invalid. Must be invoked if the elements are
+     * modified directly, i.e. not through set() or clamp()
+     */
+    public void invalidate();
 }
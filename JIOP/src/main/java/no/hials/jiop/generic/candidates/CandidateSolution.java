@@ -33,12 +33,18 @@ public class CandidateSolution<E> {
 
     private final long millis;
     private final int iterations;
+    private final long evaluations;
     private final Candidate<E>  solution;
 
     public CandidateSolution(Candidate<E>  solution, double cost, int iterations, long millis) {
+        this(solution, cost, iterations, millis, 0);
+    }
+
+    public CandidateSolution(Candidate<E>  solution, double cost, int iterations, long millis, long evaluations) {
         this.millis = millis;
         this.solution = solution;
         this.iterations = iterations;
+        this.evaluations = evaluations;
     }
 
     public long getMillis() {
@@ -50,13 +56,22 @@ public class CandidateSolution<E> {
         return iterations;
     }
 
+    /**
+     * Getter for the number of cost function evaluations used
+     *
+     * @return the number of evaluations, or 0 if unknown
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
     public Candidate<E> getSolution() {
         return solution;
     }
 
     @Override
     public String toString() {
-        return "SolutionData{" + "#cost=" + solution.getCost() + ", \t#iterations=" + iterations + ", \t#time=" + millis + ", \t#solution=" + solution + '}';
+        return "SolutionData{" + "#cost=" + solution.getCost() + ", \t#iterations=" + iterations + ", \t#evaluations=" + evaluations + ", \t#time=" + millis + ", \t#solution=" + solution + '}';
     }
     
     
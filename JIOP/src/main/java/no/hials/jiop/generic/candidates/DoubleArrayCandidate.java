@@ -26,6 +26,8 @@
 package no.hials.jiop.generic.candidates;
 
 import java.util.Arrays;
+import java.util.SplittableRandom;
+import no.hials.jiop.util.RandomSource;
 
 /**
  *
@@ -43,7 +45,7 @@ public class DoubleArrayCandidate extends GeneralCandidate<double[]> implements
 
     @Override
     public DoubleArrayCandidate copy() {
-        return new DoubleArrayCandidate(elements.clone(), getCost());
+        return copyState(new DoubleArrayCandidate(elements.clone(), getCost()));
     }
 
     @Override
@@ -75,14 +77,58 @@ public class DoubleArrayCandidate extends GeneralCandidate<double[]> implements
 
     @Override
     public void clamp(Number min, Number max) {
-        for (int i = 0; i < size(); i++) {
+        clamp(min.doubleValue(), max.doubleValue());
+    }
+
+    @Override
+    public void clamp(double min, double max) {
+        for (int i = 0; i < elements.length; i++) {
             double val = elements[i];
-            if (val < min.doubleValue()) {
-                elements[i] = min.doubleValue();
-            } else if (val > max.doubleValue()) {
-                elements[i] = max.doubleValue();
+            if (val < min) {
+                elements[i] = min;
+                dirty = true;
+            } else if (val > max) {
+                elements[i] = max;
+                dirty = true;
+            }
+        }
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return elements[index];
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        elements[index] = value;
+        dirty = true;
+    }
+
+    @Override
+    public void copyInto(double[] destination) {
+        System.arraycopy(elements, 0, destination, 0, elements.length);
+    }
+
+    @Override
+    public void copyFrom(double[] source) {
+        System.arraycopy(source, 0, elements, 0, elements.length);
+        dirty = true;
+    }
+
+    @Override
+    public void axpy(double a, DoubleVector x) {
+        if (x instanceof DoubleArrayCandidate) {
+            double[] other = ((DoubleArrayCandidate) x).elements;
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] += a * other[i];
+            }
+        } else {
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] += a * x.getDouble(i);
             }
         }
+        dirty = true;
     }
 
     @Override
@@ -107,6 +153,7 @@ public class DoubleArrayCandidate extends GeneralCandidate<double[]> implements
 
     @Override
     public DoubleArrayCandidate neighbor(double proximity) {
+        SplittableRandom rng = RandomSource.current();
         double[] neighbor = new double[size()];
         for (int i = 0; i < size(); i++) {
             double val = elements[i] + (rng.nextDouble() * Math.abs(proximity - (-proximity)) + (-proximity));
@@ -123,6 +170,7 @@ public class DoubleArrayCandidate extends GeneralCandidate<double[]> implements
     @Override
     public void set(int index, Object o) {
         elements[index] = (double) o;
+        dirty = true;
     }
 
 }
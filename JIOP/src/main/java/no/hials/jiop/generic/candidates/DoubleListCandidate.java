@@ -27,6 +27,8 @@ package no.hials.jiop.generic.candidates;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import no.hials.jiop.util.RandomSource;
 
 /**
  *
@@ -49,6 +51,7 @@ public class DoubleListCandidate extends GeneralCandidate<List<Double>> implemen
 
     @Override
     public Candidate<List<Double>> neighbor(double proximity) {
+        SplittableRandom rng = RandomSource.current();
         List<Double> neighbor = new ArrayList<>(size());
         for (int i = 0; i < size(); i++) {
             double val = elements.get(i) + (rng.nextDouble() * Math.abs(proximity - (-proximity)) + (-proximity));
@@ -91,16 +94,57 @@ public class DoubleListCandidate extends GeneralCandidate<List<Double>> implemen
 
     @Override
     public void clamp(Number min, Number max) {
+        clamp(min.doubleValue(), max.doubleValue());
+    }
+
+    @Override
+    public void clamp(double min, double max) {
         for (int i = 0; i < size(); i++) {
             double val = elements.get(i);
-            if (val < min.doubleValue()) {
-                elements.set(i, min.doubleValue());
-            } else if (val > max.doubleValue()) {
-                elements.set(i, max.doubleValue());
+            if (val < min) {
+                elements.set(i, min);
+                dirty = true;
+            } else if (val > max) {
+                elements.set(i, max);
+                dirty = true;
             }
         }
     }
 
+    @Override
+    public double getDouble(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        elements.set(index, value);
+        dirty = true;
+    }
+
+    @Override
+    public void copyInto(double[] destination) {
+        for (int i = 0; i < size(); i++) {
+            destination[i] = elements.get(i);
+        }
+    }
+
+    @Override
+    public void copyFrom(double[] source) {
+        for (int i = 0; i < size(); i++) {
+            elements.set(i, source[i]);
+        }
+        dirty = true;
+    }
+
+    @Override
+    public void axpy(double a, DoubleVector x) {
+        for (int i = 0; i < size(); i++) {
+            elements.set(i, elements.get(i) + a * x.getDouble(i));
+        }
+        dirty = true;
+    }
+
 //    @Override
 //    public void set(int index, Number value) {
 //        elements.set(index, value.doubleValue());
@@ -109,6 +153,7 @@ public class DoubleListCandidate extends GeneralCandidate<List<Double>> implemen
     @Override
     public void set(int index, Object o) {
         elements.set(index, (Double) o);
+        dirty = true;
     }
 
     @Override
@@ -117,7 +162,7 @@ public class DoubleListCandidate extends GeneralCandidate<List<Double>> implemen
         for (int i = 0; i < size(); i++) {
             list.add((double) elements.get(i));
         }
-        return new DoubleListCandidate(list, cost);
+        return copyState(new DoubleListCandidate(list, cost));
     }
 
     @Override
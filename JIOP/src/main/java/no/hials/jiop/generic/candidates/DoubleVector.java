@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.candidates;
+
+/**
+ * Primitive access to the coordinates of a numeric candidate, so that hot
+ * loops can read and write values without boxing them as Number
+ *
+ * @author Lars Ivar Hatledal
+ */
+public interface DoubleVector {
+
+    public int size();
+
+    /**
+     * Get the value at the given index
+     *
+     * @param index the index
+     * @return the value
+     */
+    public double getDouble(int index);
+
+    /**
+     * Set the value at the given index
+     *
+     * @param index the index
+     * @param value the new value
+     */
+    public void setDouble(int index, double value);
+
+    /**
+     * Copies all values into the destination array
+     *
+     * @param destination an array of at least size() elements
+     */
+    public void copyInto(double[] destination);
+
+    /**
+     * Sets all values from the source array
+     *
+     * @param source an array of at least size() elements
+     */
+    public void copyFrom(double[] source);
+
+    /**
+     * Adds a * x to this vector in place
+     *
+     * @param a the scalar
+     * @param x the vector to add, of the same size as this
+     */
+    public void axpy(double a, DoubleVector x);
+
+    /**
+     * Limits every value to the range [min, max] in place
+     *
+     * @param min the lower bound
+     * @param max the upper bound
+     */
+    public void clamp(double min, double max);
+}
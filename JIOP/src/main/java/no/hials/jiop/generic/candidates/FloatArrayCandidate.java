@@ -26,6 +26,8 @@
 package no.hials.jiop.generic.candidates;
 
 import java.util.Arrays;
+import java.util.SplittableRandom;
+import no.hials.jiop.util.RandomSource;
 
 /**
  *
@@ -43,7 +45,7 @@ public class FloatArrayCandidate extends GeneralCandidate<float[]> implements Nu
 
     @Override
     public FloatArrayCandidate copy() {
-        return new FloatArrayCandidate(getElements().clone(), getCost());
+        return copyState(new FloatArrayCandidate(getElements().clone(), getCost()));
     }
 
     @Override
@@ -74,17 +76,58 @@ public class FloatArrayCandidate extends GeneralCandidate<float[]> implements Nu
     }
 
     @Override
-    public void clamp(Number min, Number max) {
-        for (int i = 0; i < size(); i++) {
-            float val = get(i).floatValue();
-            if (val < min.floatValue()) {
-                set(i, min.floatValue());
-            } else if (val > max.floatValue()) {
-                set(i, max.floatValue());
+    public void clamp(double min, double max) {
+        for (int i = 0; i < elements.length; i++) {
+            float val = elements[i];
+            if (val < min) {
+                elements[i] = (float) min;
+                dirty = true;
+            } else if (val > max) {
+                elements[i] = (float) max;
+                dirty = true;
             }
         }
     }
 
+    @Override
+    public double getDouble(int index) {
+        return elements[index];
+    }
+
+    @Override
+    public void setDouble(int index, double value) {
+        elements[index] = (float) value;
+        dirty = true;
+    }
+
+    @Override
+    public void copyInto(double[] destination) {
+        for (int i = 0; i < elements.length; i++) {
+            destination[i] = elements[i];
+        }
+    }
+
+    @Override
+    public void copyFrom(double[] source) {
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = (float) source[i];
+        }
+        dirty = true;
+    }
+
+    @Override
+    public void axpy(double a, DoubleVector x) {
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] += a * x.getDouble(i);
+        }
+        dirty = true;
+    }
+
+    @Override
+    public void clamp(Number min, Number max) {
+        clamp(min.doubleValue(), max.doubleValue());
+    }
+
     @Override
     public int size() {
         return elements.length;
@@ -103,6 +146,7 @@ public class FloatArrayCandidate extends GeneralCandidate<float[]> implements Nu
       @Override
     public void set(int index, Object o) {
         elements[index] = (float) o;
+        dirty = true;
     }
 
 
@@ -113,9 +157,10 @@ public class FloatArrayCandidate extends GeneralCandidate<float[]> implements Nu
 
     @Override
     public FloatArrayCandidate neighbor(double proximity) {
+        SplittableRandom rng = RandomSource.current();
         float[] neighbor = new float[size()];
         for (int i = 0; i < size(); i++) {
-            float val = (float) (elements[i] + (rng.nextFloat() * Math.abs(proximity - (-proximity)) + (-proximity)));
+            float val = (float) (elements[i] + ((float) rng.nextDouble() * Math.abs(proximity - (-proximity)) + (-proximity)));
             if (val < 0) {
                 val = 0;
             } else if (val > 1) {
@@ -26,7 +26,6 @@
 package no.hials.jiop.generic.candidates;
 
 import java.util.Iterator;
-import java.util.Random;
 
 /**
  *
@@ -35,10 +34,9 @@ import java.util.Random;
  */
 public abstract class GeneralCandidate<E> implements Candidate<E> {
 
-    protected final Random rng = new Random();
-
     protected double cost = Double.MAX_VALUE;
     protected E elements;
+    protected boolean dirty = true;
 
     public GeneralCandidate(E elements) {
         this.elements = elements;
@@ -47,12 +45,22 @@ public abstract class GeneralCandidate<E> implements Candidate<E> {
     public GeneralCandidate(E elements, double cost) {
         this.elements = elements;
         this.cost = cost;
+        this.dirty = false;
     }
 
+    /**
+     * Replaces the elements. The given cost is taken to be the cost of the
+     * new elements, so the candidate is clean afterwards. Invoke invalidate()
+     * if the cost is not known.
+     *
+     * @param elements the new elements
+     * @param cost the cost of the new elements
+     */
     @Override
     public void setElements(E elements, double cost) {
         this.elements = elements;
         this.cost = cost;
+        this.dirty = false;
     }
 
     @Override
@@ -63,6 +71,29 @@ public abstract class GeneralCandidate<E> implements Candidate<E> {
     @Override
     public  void setCost(double cost) {
         this.cost = cost;
+        this.dirty = false;
+    }
+
+    @Override
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    @Override
+    public void invalidate() {
+        this.dirty = true;
+    }
+
+    /**
+     * Carries the dirty flag over to a copy of this candidate
+     *
+     * @param <T> the type of the copy
+     * @param copy the copy
+     * @return the copy
+     */
+    protected <T extends GeneralCandidate<E>> T copyState(T copy) {
+        copy.dirty = dirty;
+        return copy;
     }
 
     /**
@@ -30,7 +30,7 @@ package no.hials.jiop.generic.candidates;
  * @author Lars Ivar Hatledal
  * @param <E>
  */
-public interface  NumericCandidate<E> extends Candidate<E> {
+public interface  NumericCandidate<E> extends Candidate<E>, DoubleVector {
 
     public abstract NumericCandidate plus(Number[] other);
 
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.candidates;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A population of double[] candidates stored as a structure of arrays. All
+ * the elements are kept in one contiguous row-major array, and the costs in a
+ * separate array, so that algorithms can work on the population without
+ * allocating per-candidate objects.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class PopulationMatrix implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int size, dimension;
+    private final double[] elements;
+    private final double[] costs;
+
+    /**
+     * Creates a new population where every cost is Double.MAX_VALUE
+     *
+     * @param size the number of candidates
+     * @param dimension the number of elements in each candidate
+     */
+    public PopulationMatrix(int size, int dimension) {
+        this.size = size;
+        this.dimension = dimension;
+        this.elements = new double[size * dimension];
+        this.costs = new double[size];
+        Arrays.fill(costs, Double.MAX_VALUE);
+    }
+
+    /**
+     * Get the number of candidates in the population
+     *
+     * @return the population size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of elements in each candidate
+     *
+     * @return the problem dimensionality
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Get the backing row-major element array. Candidate i occupies the
+     * indexes [offset(i), offset(i) + getDimension()).
+     *
+     * @return the backing element array
+     */
+    public double[] getElements() {
+        return elements;
+    }
+
+    /**
+     * Get the backing cost array
+     *
+     * @return the backing cost array
+     */
+    public double[] getCosts() {
+        return costs;
+    }
+
+    /**
+     * Get the index of the first element of a candidate in the element array
+     *
+     * @param row the candidate index
+     * @return the offset of the candidate
+     */
+    public int offset(int row) {
+        return row * dimension;
+    }
+
+    public double get(int row, int index) {
+        return elements[row * dimension + index];
+    }
+
+    public void set(int row, int index, double value) {
+        elements[row * dimension + index] = value;
+    }
+
+    public double getCost(int row) {
+        return costs[row];
+    }
+
+    public void setCost(int row, double cost) {
+        costs[row] = cost;
+    }
+
+    /**
+     * Copies the elements of a candidate into the given array
+     *
+     * @param row the candidate index
+     * @param dst the array to copy into
+     */
+    public void getRow(int row, double[] dst) {
+        System.arraycopy(elements, row * dimension, dst, 0, dimension);
+    }
+
+    /**
+     * Overwrites the elements and cost of a candidate
+     *
+     * @param row the candidate index
+     * @param src the new elements
+     * @param cost the new cost
+     */
+    public void setRow(int row, double[] src, double cost) {
+        System.arraycopy(src, 0, elements, row * dimension, dimension);
+        costs[row] = cost;
+    }
+
+    /**
+     * Copies a candidate, including its cost, into another population
+     *
+     * @param row the candidate index in this population
+     * @param dst the destination population
+     * @param dstRow the candidate index in the destination population
+     */
+    public void copyRow(int row, PopulationMatrix dst, int dstRow) {
+        System.arraycopy(elements, row * dimension, dst.elements, dstRow * dimension, dimension);
+        dst.costs[dstRow] = costs[row];
+    }
+
+    /**
+     * Assigns uniformly distributed values in [0, 1] to every element and
+     * resets the costs
+     *
+     * @param rng the random generator to use
+     */
+    public void randomize(SplittableRandom rng) {
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = rng.nextDouble();
+        }
+        Arrays.fill(costs, Double.MAX_VALUE);
+    }
+
+    /**
+     * Clamps the elements of a candidate to the range [min, max]
+     *
+     * @param row the candidate index
+     * @param min the lower bound
+     * @param max the upper bound
+     */
+    public void clamp(int row, double min, double max) {
+        int end = (row + 1) * dimension;
+        for (int i = row * dimension; i < end; i++) {
+            double val = elements[i];
+            if (val < min) {
+                elements[i] = min;
+            } else if (val > max) {
+                elements[i] = max;
+            }
+        }
+    }
+
+    /**
+     * Get the index of the candidate with the lowest cost
+     *
+     * @return the index of the best candidate
+     */
+    public int bestIndex() {
+        int best = 0;
+        for (int i = 1; i < size; i++) {
+            if (costs[i] < costs[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Get the average cost of the population
+     *
+     * @return the average cost
+     */
+    public double averageCost() {
+        double avg = 0;
+        for (int i = 0; i < size; i++) {
+            avg += costs[i];
+        }
+        return avg / size;
+    }
+
+    /**
+     * Fills the given array with the candidate indexes ordered by cost (lower
+     * indexes = lower cost). The rows themselves are not moved.
+     *
+     * @param order an array of length size() to fill
+     */
+    public void rank(int[] order) {
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        rank(order, 0, size - 1);
+    }
+
+    private void rank(int[] order, int lo, int hi) {
+        while (lo < hi) {
+            double pivot = costs[order[(lo + hi) >>> 1]];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (costs[order[i]] < pivot) {
+                    i++;
+                }
+                while (costs[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i++] = order[j];
+                    order[j--] = tmp;
+                }
+            }
+            // recurse into the smaller half to bound the stack depth
+            if (j - lo < hi - i) {
+                rank(order, lo, j);
+                lo = i;
+            } else {
+                rank(order, i, hi);
+                hi = j;
+            }
+        }
+    }
+
+    /**
+     * Creates a new candidate holding a copy of the given row
+     *
+     * @param row the candidate index
+     * @return a new candidate instance
+     */
+    public DoubleArrayCandidate toCandidate(int row) {
+        return new DoubleArrayCandidate(Arrays.copyOfRange(elements, row * dimension, (row + 1) * dimension), costs[row]);
+    }
+}
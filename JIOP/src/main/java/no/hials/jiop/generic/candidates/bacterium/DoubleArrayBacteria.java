@@ -72,6 +72,6 @@ public class DoubleArrayBacteria extends DoubleArrayCandidate implements Bacteri
 
     @Override
     public DoubleArrayBacteria copy() {
-        return new DoubleArrayBacteria(elements.clone(), cost, prevCost, health);
+        return copyState(new DoubleArrayBacteria(elements.clone(), cost, prevCost, health));
     } 
 }
@@ -26,10 +26,12 @@
 
 package no.hials.jiop.generic.candidates.bacterium;
 
+import java.util.SplittableRandom;
 import no.hials.jiop.generic.candidates.DoubleArrayCandidate;
 import no.hials.jiop.generic.candidates.NumericCandidate;
 import no.hials.jiop.generic.factories.AbstractCandidateFactory;
 import no.hials.jiop.generic.factories.NumericCandidateFactory;
+import no.hials.jiop.util.RandomSource;
 
 /**
  *
@@ -44,9 +46,10 @@ public class DoubleArrayBacteriaFactory extends AbstractCandidateFactory<double[
 
     @Override
     public NumericCandidate<double[]> generateRandom(int dimension) {
-         double[] random = new double[dimension];
+        SplittableRandom rng = RandomSource.current();
+        double[] random = new double[dimension];
         for (int i = 0; i < random.length; i++) {
-            random[i] = Math.random();
+            random[i] = rng.nextDouble();
         }
         return new DoubleArrayBacteria(random);
     }
@@ -34,7 +34,7 @@ import no.hials.jiop.generic.candidates.NumericCandidate;
  */
 public class DoubleArrayParticle extends DoubleArrayCandidate implements ParticleCandidate<double[]> {
 
-    private double[] localBestPosition;
+    private final double[] localBestPosition;
     private double localBestCost;
     private final double[] velocity;
 
@@ -62,19 +62,70 @@ public class DoubleArrayParticle extends DoubleArrayCandidate implements Particl
         velocity[index] = value.doubleValue();
     }
 
+    @Override
+    public double getVelocity(int index) {
+        return velocity[index];
+    }
+
+    @Override
+    public void setVelocity(int index, double value) {
+        velocity[index] = value;
+    }
+
+    @Override
+    public double getLocalBestAt(int index) {
+        return localBestPosition[index];
+    }
+
+    @Override
+    public double getLocalBestCost() {
+        return localBestCost;
+    }
+
+    @Override
+    public void promoteToLocalBest() {
+        System.arraycopy(elements, 0, localBestPosition, 0, elements.length);
+        localBestCost = cost;
+    }
+
+    /**
+     * Get the velocity array backing this particle
+     *
+     * @return the velocity array, not a copy
+     */
+    public double[] getVelocity() {
+        return velocity;
+    }
+
+    /**
+     * Get the personal best position backing this particle
+     *
+     * @return the personal best position, not a copy
+     */
+    public double[] getLocalBestPosition() {
+        return localBestPosition;
+    }
+
     @Override
     public DoubleArrayParticle copy() {
-        return new DoubleArrayParticle(elements.clone(), cost);
+        return copyState(new DoubleArrayParticle(elements.clone(), cost));
     }
 
+    /**
+     * Get the personal best as a candidate. The candidate shares its elements
+     * with the personal best of this particle. Prefer getLocalBestAt() and
+     * getLocalBestCost() in loops.
+     *
+     * @return the personal best
+     */
     @Override
     public NumericCandidate<double[]> getLocalBest() {
-        return new DoubleArrayParticle(localBestPosition, localBestCost);
+        return new DoubleArrayCandidate(localBestPosition, localBestCost);
     }
 
     @Override
     public void setLocalBest(NumericCandidate<double[]> localBest) {
-       this.localBestPosition = localBest.getElements();
+       localBest.copyInto(localBestPosition);
        this.localBestCost = localBest.getCost();
     }
 
@@ -25,9 +25,11 @@
  */
 package no.hials.jiop.generic.candidates.particles;
 
+import java.util.SplittableRandom;
 import no.hials.jiop.generic.candidates.NumericCandidate;
 import no.hials.jiop.generic.factories.AbstractCandidateFactory;
 import no.hials.jiop.generic.factories.NumericCandidateFactory;
+import no.hials.jiop.util.RandomSource;
 
 /**
  *
@@ -42,9 +44,10 @@ public class DoubleArrayParticleFactory extends AbstractCandidateFactory<double[
 
     @Override
     public NumericCandidate<double[]> generateRandom(int dimension) {
+        SplittableRandom rng = RandomSource.current();
         double[] random = new double[dimension];
         for (int i = 0; i < random.length; i++) {
-            random[i] = Math.random();
+            random[i] = rng.nextDouble();
         }
         return new DoubleArrayParticle(random);
     }
@@ -41,6 +41,43 @@ public interface ParticleCandidate<E> extends NumericCandidate<E> {
 
     public void setVelocityAt(int index, Number value);
 
+    /**
+     * Get the velocity at the given index without boxing
+     *
+     * @param index the index
+     * @return the velocity
+     */
+    public double getVelocity(int index);
+
+    /**
+     * Set the velocity at the given index without boxing
+     *
+     * @param index the index
+     * @param value the new velocity
+     */
+    public void setVelocity(int index, double value);
+
+    /**
+     * Get the personal best position at the given index
+     *
+     * @param index the index
+     * @return the personal best position at the index
+     */
+    public double getLocalBestAt(int index);
+
+    /**
+     * Getter for the cost of the personal best position
+     *
+     * @return the personal best cost
+     */
+    public double getLocalBestCost();
+
+    /**
+     * Makes the current position and cost the personal best, by copying
+     * them into the personal best state of the particle
+     */
+    public void promoteToLocalBest();
+
     @Override
     public ParticleCandidate<E> copy();
     
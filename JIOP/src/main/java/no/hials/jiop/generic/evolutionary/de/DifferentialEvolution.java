@@ -25,10 +25,15 @@
  */
 package no.hials.jiop.generic.evolutionary.de;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import no.hials.jiop.generic.Evaluator;
 import no.hials.jiop.generic.GeneralPopulationBasedAlgorithm;
+import no.hials.jiop.generic.SteadyStateEngine;
+import no.hials.jiop.generic.SteadyStateRule;
 import no.hials.jiop.generic.candidates.Candidate;
 import no.hials.jiop.generic.candidates.NumericCandidate;
 import no.hials.jiop.generic.factories.NumericCandidateFactory;
@@ -46,6 +51,18 @@ public class DifferentialEvolution<E> extends GeneralPopulationBasedAlgorithm<E>
 
     private boolean multiThreaded;
 
+    private boolean synchronous, steadyState;
+
+    private transient volatile ThreadLocal<NumericCandidate<E>> trialBuffers;
+    private transient List<Candidate<E>> trials;
+    private transient SteadyStateEngine<E> steadyStateEngine;
+    private transient SteadyStateRule<E> steadyStateRule;
+
+    /**
+     * Number of candidates handled by one task in synchronous mode
+     */
+    private static final int RANGE_SIZE = 8;
+
     public DifferentialEvolution(int size, double F, double CR, NumericCandidateFactory<E> candidateFactory, Evaluator<E> evalutor, boolean multiThreaded) {
         this(size, F, CR, candidateFactory, evalutor, multiThreaded ? "MultiThreaded Differential Evolution" : "SingleThreaded Differential Evolution", multiThreaded);
     }
@@ -59,11 +76,22 @@ public class DifferentialEvolution<E> extends GeneralPopulationBasedAlgorithm<E>
 
     @Override
     protected void singleIteration() {
-        for (Candidate<E> c : getPopulation()) {
+        if (synchronous) {
+            synchronousIteration();
+            return;
+        }
+        if (steadyState) {
+            steadyStateIteration();
+            return;
+        }
+        final long seed = rng.nextLong();
+        for (int i = 0; i < size(); i++) {
+            final NumericCandidate<E> c = (NumericCandidate<E>) population.get(i);
+            final SplittableRandom random = new SplittableRandom(seed + i);
             if (multiThreaded) {
-                getCompletionService().submit(() -> threadingTask((NumericCandidate<E>) c), null);
+                getCompletionService().submit(() -> threadingTask(c, random), null);
             } else {
-                threadingTask((NumericCandidate<E>) c);
+                threadingTask(c, random);
             }
         }
         if (multiThreaded) {
@@ -77,7 +105,88 @@ public class DifferentialEvolution<E> extends GeneralPopulationBasedAlgorithm<E>
         }
     }
 
-    private void threadingTask(final NumericCandidate<E> c) {
+    /**
+     * Performs one generation where every trial vector is built from the
+     * frozen current population. The population is only updated once all
+     * trials have been evaluated, so the outcome does not depend on how the
+     * work is scheduled.
+     */
+    private void synchronousIteration() {
+        final List<Candidate<E>> trialList = getTrials();
+        final long seed = rng.nextLong();
+        final int numRanges = (size() + RANGE_SIZE - 1) / RANGE_SIZE;
+        if (multiThreaded) {
+            invokeAll(numRanges, range -> buildRange(range, seed, trialList, true));
+        } else {
+            for (int range = 0; range < numRanges; range++) {
+                buildRange(range, seed, trialList, false);
+            }
+            evaluateAll(trialList);
+        }
+        for (int i = 0; i < size(); i++) {
+            Candidate<E> trial = trialList.get(i);
+            if (trial.getCost() < population.get(i).getCost()) {
+                trialList.set(i, population.set(i, trial));
+                setBestCandidateIfBetter(trial);
+            }
+        }
+    }
+
+    /**
+     * Builds the trial vectors for one range of the population. Each range
+     * uses its own generator derived from the generation seed.
+     *
+     * @param range the index of the range
+     * @param seed the generation seed
+     * @param trialList the trial buffers
+     * @param evaluate whether or not the trials should be evaluated here
+     */
+    private void buildRange(int range, long seed, List<Candidate<E>> trialList, boolean evaluate) {
+        SplittableRandom random = new SplittableRandom(seed + range);
+        int n = size();
+        int to = Math.min(n, (range + 1) * RANGE_SIZE);
+        for (int i = range * RANGE_SIZE; i < to; i++) {
+            int r1, r2, r3;
+            do {
+                r1 = random.nextInt(n);
+            } while (r1 == i);
+            do {
+                r2 = random.nextInt(n);
+            } while (r2 == i || r2 == r1);
+            do {
+                r3 = random.nextInt(n);
+            } while (r3 == i || r3 == r1 || r3 == r2);
+            NumericCandidate<E> trial = (NumericCandidate<E>) trialList.get(i);
+            buildTrial((NumericCandidate<E>) population.get(i), (NumericCandidate<E>) population.get(r1),
+                    (NumericCandidate<E>) population.get(r2), (NumericCandidate<E>) population.get(r3), trial, random);
+            if (evaluate) {
+                if (isCancelled()) {
+                    trial.setElements(trial.getElements(), Double.MAX_VALUE);
+                    trial.invalidate();
+                } else {
+                    evaluate(trial);
+                }
+            }
+        }
+    }
+
+    private void threadingTask(final NumericCandidate<E> c, SplittableRandom random) {
+        if (isCancelled()) {
+            return;
+        }
+        NumericCandidate<E> trial = produceTrial(c, random);
+        evaluate(trial);
+        acceptTrial(c, trial);
+    }
+
+    /**
+     * Builds the trial vector of c into the trial buffer of the calling thread
+     *
+     * @param c the target vector
+     * @param rng the generator to use
+     * @return the trial vector
+     */
+    private NumericCandidate<E> produceTrial(final NumericCandidate<E> c, SplittableRandom rng) {
         NumericCandidate<E> c1;
         NumericCandidate<E> c2, c3;
         do {
@@ -92,21 +201,181 @@ public class DifferentialEvolution<E> extends GeneralPopulationBasedAlgorithm<E>
             int rand = rng.nextInt(size());
             c3 = (NumericCandidate<E>)  getPopulation().get(rand);
         } while (c3 == c && c3 == c1 && c3 == c2);
+        NumericCandidate<E> trial = getTrialBuffer(c);
+        buildTrial(c, c1, c2, c3, trial, rng);
+        return trial;
+    }
+
+    /**
+     * Replaces c with the evaluated trial vector if the trial is better
+     *
+     * @param c the target vector
+     * @param trial the evaluated trial vector
+     */
+    private void acceptTrial(final NumericCandidate<E> c, NumericCandidate<E> trial) {
+        if (trial.getCost() < c.getCost()) {
+            E elements = c.getElements();
+            if (elements instanceof double[]) {
+                double[] t = (double[]) trial.getElements();
+                System.arraycopy(t, 0, (double[]) elements, 0, t.length);
+                c.setCost(trial.getCost());
+            } else {
+                // swap the element containers, so that the old elements of c becomes the next trial buffer
+                c.setElements(trial.getElements(), trial.getCost());
+                trial.setElements(elements, Double.MAX_VALUE);
+                trial.invalidate();
+            }
+            setBestCandidateIfBetter(c);
+        }
+    }
+
+    /**
+     * Lets the steady state engine perform size() evaluations. A target is
+     * updated as soon as its own trial has been evaluated, and the workers
+     * of the engine keep going until compute() returns.
+     */
+    private void steadyStateIteration() {
+        if (steadyStateEngine == null) {
+            steadyStateEngine = new SteadyStateEngine<>(this);
+            steadyStateRule = new SteadyStateRule<E>() {
+
+                @Override
+                public int slots() {
+                    return size();
+                }
+
+                @Override
+                public Candidate<E> produce(int slot, SplittableRandom rng) {
+                    return produceTrial((NumericCandidate<E>) population.get(slot), rng);
+                }
+
+                @Override
+                public void accept(int slot, Candidate<E> candidate) {
+                    acceptTrial((NumericCandidate<E>) population.get(slot), (NumericCandidate<E>) candidate);
+                }
+            };
+        }
+        steadyStateEngine.run(steadyStateRule, size());
+    }
+
+    @Override
+    protected void afterCompute() {
+        if (steadyStateEngine != null) {
+            steadyStateEngine.stop();
+        }
+    }
+
+    /**
+     * Writes the DE/rand/1/bin trial vector of c into trial
+     *
+     * @param c the target vector
+     * @param c1 the base vector
+     * @param c2 the first difference vector
+     * @param c3 the second difference vector
+     * @param trial the buffer to write the trial vector into
+     * @param rng the generator to use
+     */
+    private void buildTrial(NumericCandidate<E> c, NumericCandidate<E> c1, NumericCandidate<E> c2, NumericCandidate<E> c3, NumericCandidate<E> trial, SplittableRandom rng) {
         int R = rng.nextInt(getDimension());
-        NumericCandidate<E> sample = (NumericCandidate<E>) randomCandidate();
-        for (int i = 0; i < sample.size(); i++) {
+        for (int i = 0; i < trial.size(); i++) {
+            double value;
             if ((rng.nextDouble() < CR) || (i == R)) {
-                double value = c1.get(i).doubleValue() + F * (c2.get(i).doubleValue() - c3.get(i).doubleValue());
-                sample.set(i, value);
+                value = c1.getDouble(i) + F * (c2.getDouble(i) - c3.getDouble(i));
             } else {
-                sample.set(i, c.get(i));
+                value = c.getDouble(i);
             }
+            trial.setDouble(i, value < 0 ? 0 : (value > 1 ? 1 : value));
         }
-        sample.clamp(0, 1);
-        evaluate(sample);
-        if (sample.getCost() < c.getCost()) {
-            c.setElements(sample.getElements(), sample.getCost());
-            setBestCandidateIfBetter(c);
+    }
+
+    /**
+     * Get the trial buffers used in synchronous mode, one per population
+     * member. The buffers are (re)created whenever the population changes
+     * size or dimension.
+     *
+     * @return the trial buffers
+     */
+    private List<Candidate<E>> getTrials() {
+        if (trials == null || trials.size() != size() || trials.get(0).size() != getDimension()) {
+            trials = new ArrayList<>(size());
+            for (Candidate<E> c : population) {
+                trials.add(c.copy());
+            }
+        }
+        return trials;
+    }
+
+    /**
+     * Get the trial buffer of the calling worker thread. The buffer is
+     * created once per thread, and reused for every trial vector after that.
+     *
+     * @param template a candidate to copy if no suitable buffer exists
+     * @return the trial buffer of the calling thread
+     */
+    private NumericCandidate<E> getTrialBuffer(NumericCandidate<E> template) {
+        if (trialBuffers == null) {
+            synchronized (this) {
+                if (trialBuffers == null) {
+                    trialBuffers = new ThreadLocal<>();
+                }
+            }
+        }
+        NumericCandidate<E> trial = trialBuffers.get();
+        if (trial == null || trial.size() != template.size()) {
+            trial = template.copy();
+            trialBuffers.set(trial);
+        }
+        return trial;
+    }
+
+    /**
+     * Whether or not the generations are synchronous. See
+     * {@link #setSynchronous(boolean)}
+     *
+     * @return true if synchronous, false otherwise
+     */
+    public boolean isSynchronous() {
+        return synchronous;
+    }
+
+    /**
+     * In synchronous mode the trial vectors of a generation are all built
+     * from the frozen previous generation, and the population is replaced in
+     * one step afterwards. Given the same seed, the result is then the same
+     * regardless of the number of threads. Disables steady state mode.
+     *
+     * @param synchronous true for synchronous generations, false for the
+     * default in-place updates
+     */
+    public void setSynchronous(boolean synchronous) {
+        this.synchronous = synchronous;
+        if (synchronous) {
+            this.steadyState = false;
+        }
+    }
+
+    /**
+     * Whether or not the steady state engine is used. See
+     * {@link #setSteadyState(boolean)}
+     *
+     * @return true if steady state, false otherwise
+     */
+    public boolean isSteadyState() {
+        return steadyState;
+    }
+
+    /**
+     * In steady state mode there is no generation barrier. Each worker of
+     * the execution context builds, evaluates and accepts one trial after
+     * the other, so a slow evaluation does not stall the other workers.
+     * Disables synchronous mode.
+     *
+     * @param steadyState true for steady state, false otherwise
+     */
+    public void setSteadyState(boolean steadyState) {
+        this.steadyState = steadyState;
+        if (steadyState) {
+            this.synchronous = false;
         }
     }
 
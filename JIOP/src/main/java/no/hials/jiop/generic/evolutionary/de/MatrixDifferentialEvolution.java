@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.evolutionary.de;
+
+import java.util.SplittableRandom;
+import no.hials.jiop.generic.Evaluator;
+import no.hials.jiop.generic.MatrixPopulationBasedAlgorithm;
+import no.hials.jiop.generic.candidates.PopulationMatrix;
+import no.hials.jiop.generic.tuning.Optimizable;
+import no.hials.jiop.util.NormalizationUtility;
+import no.hials.jiop.util.RandomSource;
+
+/**
+ * A Differential Evolution implementation working directly on a
+ * PopulationMatrix. Trial vectors are built in a reusable buffer and copied
+ * into the population on acceptance, so no objects are allocated per
+ * candidate. With a VectorizedEvaluator all the trials of a generation are
+ * built first and evaluated in one call, making the selection synchronous.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class MatrixDifferentialEvolution extends MatrixPopulationBasedAlgorithm implements Optimizable {
+
+    private static final long serialVersionUID = 1L;
+
+    private double F, CR;
+
+    private double[] trial;
+    private PopulationMatrix trials;
+
+    public MatrixDifferentialEvolution(int size, double F, double CR, Evaluator<double[]> evaluator) {
+        this(size, F, CR, evaluator, "Matrix Differential Evolution");
+    }
+
+    public MatrixDifferentialEvolution(int size, double F, double CR, Evaluator<double[]> evaluator, String name) {
+        super(size, evaluator, name);
+        this.F = F;
+        this.CR = CR;
+    }
+
+    @Override
+    protected void singleIteration() {
+        int n = population.size();
+        int dim = population.getDimension();
+        double[] x = population.getElements();
+        SplittableRandom rng = RandomSource.current();
+        if (isVectorized()) {
+            if (trials == null || trials.size() != n || trials.getDimension() != dim) {
+                trials = new PopulationMatrix(n, dim);
+            }
+            for (int i = 0; i < n; i++) {
+                buildTrial(x, i, n, dim, trials.getElements(), trials.offset(i), rng);
+            }
+            evaluateAll(trials);
+            for (int i = 0; i < n; i++) {
+                if (trials.getCost(i) < population.getCost(i)) {
+                    trials.copyRow(i, population, i);
+                    setBestCandidateIfBetter(population, i);
+                }
+            }
+            return;
+        }
+        if (trial == null || trial.length != dim) {
+            trial = new double[dim];
+        }
+        for (int i = 0; i < n && !isCancelled(); i++) {
+            buildTrial(x, i, n, dim, trial, 0, rng);
+            double cost = getEvaluator().evaluateElements(trial);
+            if (cost < population.getCost(i)) {
+                population.setRow(i, trial, cost);
+                setBestCandidateIfBetter(population, i);
+            }
+        }
+    }
+
+    /**
+     * Builds the trial vector of a candidate using the rand/1/bin scheme
+     *
+     * @param x the population elements
+     * @param i the index of the target candidate
+     * @param n the population size
+     * @param dim the problem dimensionality
+     * @param dst the array receiving the trial
+     * @param offset where in dst to put the trial
+     * @param rng the random generator of the calling thread
+     */
+    private void buildTrial(double[] x, int i, int n, int dim, double[] dst, int offset, SplittableRandom rng) {
+        int r1, r2, r3;
+        do {
+            r1 = rng.nextInt(n);
+        } while (r1 == i);
+        do {
+            r2 = rng.nextInt(n);
+        } while (r2 == i || r2 == r1);
+        do {
+            r3 = rng.nextInt(n);
+        } while (r3 == i || r3 == r1 || r3 == r2);
+        int o = i * dim, o1 = r1 * dim, o2 = r2 * dim, o3 = r3 * dim;
+        int R = rng.nextInt(dim);
+        for (int j = 0; j < dim; j++) {
+            double value;
+            if ((rng.nextDouble() < CR) || (j == R)) {
+                value = x[o1 + j] + F * (x[o2 + j] - x[o3 + j]);
+            } else {
+                value = x[o + j];
+            }
+            dst[offset + j] = value < 0 ? 0 : (value > 1 ? 1 : value);
+        }
+    }
+
+    public double getF() {
+        return F;
+    }
+
+    public void setF(double F) {
+        this.F = F;
+    }
+
+    public double getCR() {
+        return CR;
+    }
+
+    public void setCR(double CR) {
+        this.CR = CR;
+    }
+
+    @Override
+    public int getNumberOfFreeParameters() {
+        return 3;
+    }
+
+    @Override
+    public void setFreeParameters(double[] array) {
+        setInitialSize((int) new NormalizationUtility(1, 0, 60, 10).normalize(array[0]));
+        this.F = new NormalizationUtility(1, 0, 2, 0.1).normalize(array[1]);
+        this.CR = new NormalizationUtility(1, 0, 1, 0.1).normalize(array[2]);
+    }
+
+    @Override
+    public double[] getFreeParameters() {
+        return new double[]{size(), F, CR};
+    }
+}
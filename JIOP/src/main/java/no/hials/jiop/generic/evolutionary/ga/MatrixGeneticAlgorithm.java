@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.evolutionary.ga;
+
+import java.util.SplittableRandom;
+import no.hials.jiop.generic.Evaluator;
+import no.hials.jiop.generic.MatrixPopulationBasedAlgorithm;
+import no.hials.jiop.generic.candidates.PopulationMatrix;
+import no.hials.jiop.generic.tuning.Optimizable;
+import no.hials.jiop.util.NormalizationUtility;
+import no.hials.jiop.util.RandomSource;
+
+/**
+ * A Continuous Genetic Algorithm implementation working directly on a
+ * PopulationMatrix. Uses stochastic universal sampling, blend crossover and
+ * neighbor mutation. Each generation is built in a second matrix which is
+ * swapped with the current one, so no objects are allocated per generation.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class MatrixGeneticAlgorithm extends MatrixPopulationBasedAlgorithm implements Optimizable {
+
+    private static final long serialVersionUID = 1L;
+
+    private double elitism, selectionRate, crossoverProbability, mutProb, mutChange;
+
+    private PopulationMatrix next;
+    private int[] order, selected;
+
+    public MatrixGeneticAlgorithm(int size, double elitism, double selectionRate, double crossoverProbability, double mutProb, double mutChange, Evaluator<double[]> evaluator) {
+        this(size, elitism, selectionRate, crossoverProbability, mutProb, mutChange, evaluator, "Matrix Genetic Algorithm");
+    }
+
+    public MatrixGeneticAlgorithm(int size, double elitism, double selectionRate, double crossoverProbability, double mutProb, double mutChange, Evaluator<double[]> evaluator, String name) {
+        super(size, evaluator, name);
+        this.elitism = elitism;
+        this.selectionRate = selectionRate;
+        this.crossoverProbability = crossoverProbability;
+        this.mutProb = mutProb;
+        this.mutChange = mutChange;
+    }
+
+    @Override
+    protected void singleIteration() {
+        int n = population.size();
+        int dim = population.getDimension();
+        if (next == null || next.size() != n || next.getDimension() != dim) {
+            next = new PopulationMatrix(n, dim);
+            order = new int[n];
+            selected = new int[n];
+        }
+
+        population.rank(order);
+        int numElites = Math.min(n, (int) (n * elitism));
+        for (int i = 0; i < numElites; i++) {
+            population.copyRow(order[i], next, i);
+        }
+
+        SplittableRandom rng = RandomSource.current();
+        int numSelected = select(Math.max(1, (int) (n * selectionRate)), rng);
+        double[] x = population.getElements();
+        double[] y = next.getElements();
+        for (int i = numElites; i < n; i += 2) {
+            int ma = selected[rng.nextInt(numSelected)] * dim;
+            int pa = selected[rng.nextInt(numSelected)] * dim;
+            int o1 = i * dim;
+            int o2 = (i + 1) * dim;
+            boolean both = i + 1 < n;
+            if (rng.nextDouble() < crossoverProbability) {
+                for (int j = 0; j < dim; j++) {
+                    double beta = rng.nextDouble();
+                    y[o1 + j] = beta * x[ma + j] + (1 - beta) * x[pa + j];
+                    if (both) {
+                        y[o2 + j] = (1 - beta) * x[ma + j] + beta * x[pa + j];
+                    }
+                }
+            } else {
+                System.arraycopy(x, ma, y, o1, dim);
+                if (both) {
+                    System.arraycopy(x, pa, y, o2, dim);
+                }
+            }
+            mutate(y, o1, dim, rng);
+            if (both) {
+                mutate(y, o2, dim, rng);
+            }
+        }
+        if (!evaluateRange(next, numElites, n)) {
+            // cancelled: keep the current generation rather than one holding unevaluated offspring
+            for (int i = numElites; i < n; i++) {
+                setBestCandidateIfBetter(next, i);
+            }
+            return;
+        }
+
+        PopulationMatrix tmp = population;
+        population = next;
+        next = tmp;
+        setBestCandidateIfBetter(population, population.bestIndex());
+    }
+
+    /**
+     * Stochastic universal sampling over the current population. The
+     * selected candidate indexes are written to the selected array.
+     *
+     * @param howMany the number of candidates to select
+     * @param rng the random generator of the calling thread
+     * @return the number of candidates actually selected
+     */
+    private int select(int howMany, SplittableRandom rng) {
+        double[] costs = population.getCosts();
+        double aggregateFitness = 0;
+        for (int i = 0; i < costs.length; i++) {
+            aggregateFitness += getAdjustedFitness(costs[i]);
+        }
+        double startOffset = rng.nextDouble();
+        double cumulativeExpectation = 0;
+        int index = 0;
+        for (int i = 0; i < costs.length && index < howMany; i++) {
+            cumulativeExpectation += getAdjustedFitness(costs[i]) / aggregateFitness * howMany;
+            while (cumulativeExpectation > startOffset + index && index < howMany) {
+                selected[index++] = i;
+            }
+        }
+        if (index == 0) {
+            selected[index++] = order[0];
+        }
+        return index;
+    }
+
+    private void mutate(double[] y, int offset, int dim, SplittableRandom rng) {
+        for (int j = offset; j < offset + dim; j++) {
+            if (rng.nextDouble() < mutProb) {
+                double val = y[j] + (rng.nextDouble() * 2 * mutChange - mutChange);
+                y[j] = val < 0 ? 0 : (val > 1 ? 1 : val);
+            }
+        }
+    }
+
+    private double getAdjustedFitness(double cost) {
+        return cost == 0 ? Double.POSITIVE_INFINITY : 1 / cost;
+    }
+
+    public double getElitism() {
+        return elitism;
+    }
+
+    public void setElitism(double elitism) {
+        this.elitism = elitism;
+    }
+
+    public double getSelectionRate() {
+        return selectionRate;
+    }
+
+    public void setSelectionRate(double selectionRate) {
+        this.selectionRate = selectionRate;
+    }
+
+    public double getCrossoverProbability() {
+        return crossoverProbability;
+    }
+
+    public void setCrossoverProbability(double crossoverProbability) {
+        this.crossoverProbability = crossoverProbability;
+    }
+
+    public double getMutProb() {
+        return mutProb;
+    }
+
+    public void setMutProb(double mutProb) {
+        this.mutProb = mutProb;
+    }
+
+    public double getMutChange() {
+        return mutChange;
+    }
+
+    public void setMutChange(double mutChange) {
+        this.mutChange = mutChange;
+    }
+
+    @Override
+    public int getNumberOfFreeParameters() {
+        return 6;
+    }
+
+    @Override
+    public void setFreeParameters(double[] array) {
+        this.size = (int) new NormalizationUtility(1, 0, 160, 40).normalize(array[0]);
+        this.elitism = new NormalizationUtility(1, 0, 0.4, 0).normalize(array[1]);
+        this.selectionRate = new NormalizationUtility(1, 0, 0.8, 0.01).normalize(array[2]);
+        this.crossoverProbability = new NormalizationUtility(1, 0, 0.8, 0.01).normalize(array[3]);
+        this.mutProb = new NormalizationUtility(1, 0, 0.5, 0.01).normalize(array[4]);
+        this.mutChange = new NormalizationUtility(1, 0, 0.5, 0.001).normalize(array[5]);
+    }
+
+    @Override
+    public double[] getFreeParameters() {
+        return new double[]{size, elitism, selectionRate, crossoverProbability, mutProb, mutChange};
+    }
+}
@@ -28,9 +28,9 @@ package no.hials.jiop.generic.evolutionary.ga.crossover;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
 import java.util.Set;
 import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.util.RandomSource;
 
 /**
  *
@@ -38,7 +38,7 @@ import no.hials.jiop.generic.candidates.Candidate;
  */
 public abstract class AbstractCrossoverOperator<E> {
 
-    protected final Random rng = new Random();
+    protected final RandomSource rng = RandomSource.getInstance();
 
     private double crossoverProbability;
 
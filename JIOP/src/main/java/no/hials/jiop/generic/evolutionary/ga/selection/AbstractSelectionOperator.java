@@ -26,8 +26,8 @@
 package no.hials.jiop.generic.evolutionary.ga.selection;
 
 import java.util.List;
-import java.util.Random;
 import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.util.RandomSource;
 
 /**
  *
@@ -35,7 +35,7 @@ import no.hials.jiop.generic.candidates.Candidate;
  */
 public abstract class AbstractSelectionOperator<E> {
 
-    protected final Random rng = new Random();
+    protected final RandomSource rng = RandomSource.getInstance();
     private double selectionRate;
 
     public AbstractSelectionOperator(double selectionRate) {
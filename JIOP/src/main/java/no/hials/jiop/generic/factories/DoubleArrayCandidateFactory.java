@@ -26,8 +26,10 @@
 
 package no.hials.jiop.generic.factories;
 
+import java.util.SplittableRandom;
 import no.hials.jiop.generic.candidates.DoubleArrayCandidate;
 import no.hials.jiop.generic.candidates.NumericCandidate;
+import no.hials.jiop.util.RandomSource;
 
 /**
  *
@@ -42,9 +44,10 @@ public class DoubleArrayCandidateFactory extends AbstractCandidateFactory<double
 
     @Override
     public NumericCandidate<double[]> generateRandom(int dimension) {
+        SplittableRandom rng = RandomSource.current();
         double[] random = new double[dimension];
         for (int i = 0; i < random.length; i++) {
-            random[i] = Math.random();
+            random[i] = rng.nextDouble();
         }
         return new DoubleArrayCandidate(random);
     } 
@@ -27,8 +27,10 @@ package no.hials.jiop.generic.factories;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 import no.hials.jiop.generic.candidates.DoubleListCandidate;
 import no.hials.jiop.generic.candidates.NumericCandidate;
+import no.hials.jiop.util.RandomSource;
 
 /**
  *
@@ -43,9 +45,10 @@ public class DoubleListCandidateFactory extends AbstractCandidateFactory<List<Do
 
     @Override
     public NumericCandidate<List<Double>> generateRandom(int dimension) {
+        SplittableRandom rng = RandomSource.current();
         List<Double> list = new ArrayList<>(dimension);
         for (int i = 0; i < dimension; i++) {
-            list.add(Math.random());
+            list.add(rng.nextDouble());
         }
         return new DoubleListCandidate(list);
     }
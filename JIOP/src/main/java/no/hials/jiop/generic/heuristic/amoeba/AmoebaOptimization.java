@@ -100,12 +100,12 @@ public class AmoebaOptimization<E> extends GeneralPopulationBasedAlgorithm<E> im
         NumericCandidate<E> c = (NumericCandidate<E>) randomCandidate();
         for (int i = 0; i < size() - 1; ++i) {
             for (int j = 0; j < getDimension(); ++j) {
-                c.set(j, c.get(j).doubleValue() + ((NumericCandidate<E>) getPopulation().get(i)).get(j).doubleValue());
+                c.setDouble(j, c.getDouble(j) + ((NumericCandidate<E>) getPopulation().get(i)).getDouble(j));
             }
         }
         // Accumulate sum of each component
         for (int j = 0; j < getDimension(); ++j) {
-            c.set(j, c.get(j).doubleValue() / (size() - 1));
+            c.setDouble(j, c.getDouble(j) / (size() - 1));
         }
         c.clamp(0, 1);
         evaluate(c);
@@ -116,7 +116,7 @@ public class AmoebaOptimization<E> extends GeneralPopulationBasedAlgorithm<E> im
         NumericCandidate<E> r = (NumericCandidate<E>) randomCandidate();
         NumericCandidate<E> worst = (NumericCandidate<E>) getPopulation().get(size() - 1);
         for (int j = 0; j < getDimension(); ++j) {
-            r.set(j, ((1 + alpha) * centroid.get(j).doubleValue()) - (alpha * worst.get(j).doubleValue()));
+            r.setDouble(j, ((1 + alpha) * centroid.getDouble(j)) - (alpha * worst.getDouble(j)));
         }
         r.clamp(0, 1);
         evaluate(r);
@@ -126,7 +126,7 @@ public class AmoebaOptimization<E> extends GeneralPopulationBasedAlgorithm<E> im
     private NumericCandidate<E> expanded(NumericCandidate<E> reflected, NumericCandidate<E> centroid) {
         NumericCandidate<E> e = (NumericCandidate<E>) randomCandidate();
         for (int j = 0; j < getDimension(); ++j) {
-            e.set(j, (gamma * reflected.get(j).doubleValue()) + ((1 - gamma) * centroid.get(j).doubleValue()));
+            e.setDouble(j, (gamma * reflected.getDouble(j)) + ((1 - gamma) * centroid.getDouble(j)));
         }
         e.clamp(0, 1);
         evaluate(e);
@@ -137,7 +137,7 @@ public class AmoebaOptimization<E> extends GeneralPopulationBasedAlgorithm<E> im
         NumericCandidate<E> v = (NumericCandidate<E>) randomCandidate();
         NumericCandidate<E> worst = (NumericCandidate<E>) getPopulation().get(size() - 1);
         for (int j = 0; j < getDimension(); ++j) {
-            v.set(j, (beta * worst.get(j).doubleValue()) + ((1 - beta) * centroid.get(j).doubleValue()));
+            v.setDouble(j, (beta * worst.getDouble(j)) + ((1 - beta) * centroid.getDouble(j)));
         }
         v.clamp(0, 1);
         evaluate(v);
@@ -150,18 +150,15 @@ public class AmoebaOptimization<E> extends GeneralPopulationBasedAlgorithm<E> im
     }
 
     private void shrink() {
-        for (int i = 1; i < size(); ++i) // start at [1]
+        NumericCandidate<E> best = (NumericCandidate<E>) getPopulation().get(0);
+        for (int i = 1; i < size() && !isCancelled(); ++i) // start at [1]
         {
+            NumericCandidate<E> c = (NumericCandidate<E>) getPopulation().get(i);
             for (int j = 0; j < getDimension(); ++j) {
-                double value = (((NumericCandidate<E>) getPopulation().get(i)).get(j).doubleValue() + ((NumericCandidate<E>) getPopulation().get(0)).get(j).doubleValue()) / 2d;
-                if (value < 0) {
-                    value = 0;
-                } else if (value > 1) {
-                    value = 1;
-                }
-                ((NumericCandidate<E>) getPopulation().get(i)).set(j, value);
+                c.setDouble(j, (c.getDouble(j) + best.getDouble(j)) / 2d);
             }
-            evaluate(getPopulation().get(i));
+            c.clamp(0, 1);
+            evaluate(c);
         }
         sortCandidates();
     }
@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.island;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import no.hials.jiop.generic.Algorithm;
+import no.hials.jiop.generic.Evaluator;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.candidates.CandidateSolution;
+import no.hials.jiop.generic.temination.TerminationCriteria;
+import no.hials.jiop.generic.temination.TerminationData;
+import no.hials.jiop.generic.temination.TimeElapsedCriteria;
+import no.hials.jiop.util.RandomSource;
+
+/**
+ * Runs a number of independent algorithms, called islands, in parallel. The
+ * islands may be copies of one algorithm, or a mix of different algorithms
+ * working on the same problem. Every migration interval the islands exchange
+ * their best candidates according to a migration topology.
+ *
+ * One iteration of the island model is one migration period. The
+ * termination criteria given to compute() are shared by all the islands, so
+ * time and cost criteria also stop the islands within a period, while
+ * iteration criteria count migration periods.
+ *
+ * @author Lars Ivar Hatledal
+ * @param <E> the type
+ */
+public class IslandModel<E> extends Algorithm<E> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Algorithm<E>> islands;
+
+    private int migrationInterval = 10;
+    private int numMigrants = 1;
+    private MigrationTopology migrationTopology = MigrationTopology.RING;
+
+    private transient volatile TerminationCriteria[] criterias;
+    private transient volatile long t0;
+    private transient volatile long e0;
+    private transient volatile int numEpochs;
+
+    /**
+     * Creates an island model of the given algorithms, which must all solve
+     * the same problem
+     *
+     * @param islands the islands
+     */
+    public IslandModel(List<? extends Algorithm<E>> islands) {
+        this(islands, "Island Model");
+    }
+
+    /**
+     * Creates an island model of the given algorithms, which must all solve
+     * the same problem
+     *
+     * @param islands the islands
+     * @param name the name of the algorithm
+     */
+    public IslandModel(List<? extends Algorithm<E>> islands, String name) {
+        super(first(islands).getCandidateFactory(), first(islands).getEvaluator(), name);
+        this.islands = new ArrayList<>(islands);
+    }
+
+    /**
+     * Creates an island model of copies of one algorithm
+     *
+     * @param numIslands the number of islands
+     * @param supplier creates the algorithm of each island
+     * @param name the name of the algorithm
+     */
+    public IslandModel(int numIslands, Supplier<? extends Algorithm<E>> supplier, String name) {
+        this(create(numIslands, supplier), name);
+    }
+
+    private static <E> Algorithm<E> first(List<? extends Algorithm<E>> islands) {
+        if (islands == null || islands.isEmpty()) {
+            throw new IllegalArgumentException("An island model needs at least one island!");
+        }
+        return islands.get(0);
+    }
+
+    private static <E> List<Algorithm<E>> create(int numIslands, Supplier<? extends Algorithm<E>> supplier) {
+        List<Algorithm<E>> islands = new ArrayList<>(numIslands);
+        for (int i = 0; i < numIslands; i++) {
+            islands.add(supplier.get());
+        }
+        return islands;
+    }
+
+    @Override
+    protected Candidate<E> subInit() {
+        return subInit(null);
+    }
+
+    @Override
+    protected Candidate<E> subInit(final List<E> seeds) {
+        this.numEpochs = 0;
+        for (Algorithm<E> island : islands) {
+            island.setExecutionContext(getExecutionContext());
+        }
+        final long seed = rng.nextLong();
+        invokeAll(islands.size(), i -> RandomSource.runWith(new SplittableRandom(seed + i), () -> islands.get(i).init(seeds)));
+        return bestIsland().peekBestCandidate();
+    }
+
+    @Override
+    protected void singleIteration() {
+        final TerminationCriteria epoch = new EpochCriteria();
+        final long seed = rng.nextLong();
+        invokeAll(islands.size(), i -> RandomSource.runWith(new SplittableRandom(seed + i), () -> islands.get(i).compute(epoch)));
+        numEpochs++;
+        migrate();
+        for (Algorithm<E> island : islands) {
+            setBestCandidateIfBetter(island.peekBestCandidate());
+        }
+    }
+
+    /**
+     * Sends copies of the best candidates of each island to the islands
+     * given by the migration topology
+     */
+    private void migrate() {
+        final int numIslands = islands.size();
+        List<List<Candidate<E>>> emigrants = new ArrayList<>(numIslands);
+        for (Algorithm<E> island : islands) {
+            emigrants.add(island.emigrate(numMigrants));
+        }
+        SplittableRandom rng = RandomSource.current();
+        for (int s = 0; s < numIslands; s++) {
+            for (int t : migrationTopology.targets(s, numIslands, rng)) {
+                List<Candidate<E>> migrants = new ArrayList<>(emigrants.get(s).size());
+                for (Candidate<E> migrant : emigrants.get(s)) {
+                    migrants.add(migrant.copy());
+                }
+                islands.get(t).immigrate(migrants);
+            }
+        }
+    }
+
+    private Algorithm<E> bestIsland() {
+        Algorithm<E> best = islands.get(0);
+        for (Algorithm<E> island : islands) {
+            if (island.getBestCost() < best.getBestCost()) {
+                best = island;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public CandidateSolution compute(TerminationCriteria... criterias) {
+        if (criterias == null || criterias.length == 0) {
+            criterias = new TerminationCriteria[]{new TimeElapsedCriteria(100l)};
+        }
+        this.criterias = criterias;
+        this.t0 = System.currentTimeMillis();
+        this.e0 = getEvaluations();
+        try {
+            return super.compute(criterias);
+        } finally {
+            this.criterias = null;
+        }
+    }
+
+    /**
+     * Sets the termination check interval of the model and its islands. The
+     * islands poll the shared criterias of the model from inside their
+     * epochs.
+     *
+     * @param terminationCheckInterval the interval in milliseconds, or 0
+     */
+    @Override
+    public void setTerminationCheckInterval(long terminationCheckInterval) {
+        super.setTerminationCheckInterval(terminationCheckInterval);
+        for (Algorithm<E> island : islands) {
+            island.setTerminationCheckInterval(terminationCheckInterval);
+        }
+    }
+
+    /**
+     * Cancels the running compute() along with the islands
+     */
+    @Override
+    public void cancel() {
+        super.cancel();
+        for (Algorithm<E> island : islands) {
+            island.cancel();
+        }
+    }
+
+    /**
+     * Sums the evaluation counters of the distinct evaluators used by the
+     * islands
+     *
+     * @return the number of evaluations
+     */
+    @Override
+    public long getEvaluations() {
+        Set<Evaluator<E>> evaluators = Collections.newSetFromMap(new IdentityHashMap<>());
+        long sum = 0;
+        for (Algorithm<E> island : islands) {
+            if (evaluators.add(island.getEvaluator())) {
+                sum += island.getEvaluations();
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Getter for the islands
+     *
+     * @return an unmodifiable view of the islands
+     */
+    public List<Algorithm<E>> getIslands() {
+        return Collections.unmodifiableList(islands);
+    }
+
+    /**
+     * Getter for the number of islands
+     *
+     * @return the number of islands
+     */
+    public int getNumIslands() {
+        return islands.size();
+    }
+
+    /**
+     * Getter for the number of island iterations between migrations
+     *
+     * @return the migration interval
+     */
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    /**
+     * Sets the number of island iterations between migrations
+     *
+     * @param migrationInterval the migration interval, at least 1
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval must be at least 1, was " + migrationInterval);
+        }
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * Getter for the number of migrants each island sends per migration
+     *
+     * @return the number of migrants
+     */
+    public int getNumMigrants() {
+        return numMigrants;
+    }
+
+    /**
+     * Sets the number of migrants each island sends per migration
+     *
+     * @param numMigrants the number of migrants, at least 1
+     */
+    public void setNumMigrants(int numMigrants) {
+        if (numMigrants < 1) {
+            throw new IllegalArgumentException("Number of migrants must be at least 1, was " + numMigrants);
+        }
+        this.numMigrants = numMigrants;
+    }
+
+    /**
+     * Getter for the migration topology
+     *
+     * @return the migration topology
+     */
+    public MigrationTopology getMigrationTopology() {
+        return migrationTopology;
+    }
+
+    /**
+     * Sets which islands receive the migrants of each island
+     *
+     * @param migrationTopology the migration topology
+     */
+    public void setMigrationTopology(MigrationTopology migrationTopology) {
+        this.migrationTopology = migrationTopology;
+    }
+
+    /**
+     * Stops an island after one migration interval, or as soon as the shared
+     * termination criteria are met
+     */
+    private class EpochCriteria implements TerminationCriteria {
+
+        @Override
+        public boolean souldTerminate(TerminationData data) {
+            if (data.numIterations >= migrationInterval) {
+                return true;
+            }
+            TerminationCriteria[] shared = criterias;
+            if (shared == null) {
+                return false;
+            }
+            TerminationData global = new TerminationData(Math.min(data.bestCost, getBestCost()), System.currentTimeMillis() - t0, numEpochs, getEvaluations() - e0);
+            for (TerminationCriteria tc : shared) {
+                if (tc.souldTerminate(global)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.island;
+
+import java.util.SplittableRandom;
+
+/**
+ * Decides which islands receive the migrants of an island
+ *
+ * @author Lars Ivar Hatledal
+ */
+public enum MigrationTopology {
+
+    /**
+     * Each island sends to the next island, and the last one to the first
+     */
+    RING {
+                @Override
+                public int[] targets(int source, int numIslands, SplittableRandom rng) {
+                    return numIslands < 2 ? new int[0] : new int[]{(source + 1) % numIslands};
+                }
+            },
+    /**
+     * Each island sends to every other island
+     */
+    FULLY_CONNECTED {
+                @Override
+                public int[] targets(int source, int numIslands, SplittableRandom rng) {
+                    int[] targets = new int[Math.max(0, numIslands - 1)];
+                    for (int i = 0, j = 0; i < numIslands; i++) {
+                        if (i != source) {
+                            targets[j++] = i;
+                        }
+                    }
+                    return targets;
+                }
+            },
+    /**
+     * Each island sends to one other island, chosen at random for every
+     * migration
+     */
+    RANDOM {
+                @Override
+                public int[] targets(int source, int numIslands, SplittableRandom rng) {
+                    if (numIslands < 2) {
+                        return new int[0];
+                    }
+                    int target = rng.nextInt(numIslands - 1);
+                    return new int[]{target >= source ? target + 1 : target};
+                }
+            };
+
+    /**
+     * Get the islands which should receive the migrants of the source island
+     *
+     * @param source the index of the sending island
+     * @param numIslands the number of islands
+     * @param rng the generator to use
+     * @return the indices of the receiving islands
+     */
+    public abstract int[] targets(int source, int numIslands, SplittableRandom rng);
+}
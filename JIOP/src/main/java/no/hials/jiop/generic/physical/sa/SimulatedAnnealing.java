@@ -74,7 +74,7 @@ public class SimulatedAnnealing<E> extends Algorithm<E> implements Optimizable {
     @Override
     protected void singleIteration() {
         double prox = rng.nextDouble() * Math.abs(0.25 - 0.00001) + 0.00001;
-        double dyn = (getBestCandidate().getCost() / 5);
+        double dyn = (getBestCost() / 5);
         Candidate<E> newSample = evaluate(current.neighbor(dyn));
         if (doAccept(current, newSample)) {
             current = newSample;
@@ -83,6 +83,22 @@ public class SimulatedAnnealing<E> extends Algorithm<E> implements Optimizable {
         temperature = (double) schedule.cool(temperature);
     }
 
+    /**
+     * Continues from the best migrant if it is better than the current
+     * solution
+     *
+     * @param migrants the migrants
+     */
+    @Override
+    public void immigrate(List<Candidate<E>> migrants) {
+        for (Candidate<E> migrant : migrants) {
+            if (migrant.getCost() < current.getCost()) {
+                current = adopt(migrant);
+            }
+            setBestCandidateIfBetter(migrant);
+        }
+    }
+
     /**
      * Should we accept the new solution based on the Metropolis criteria?
      *
@@ -91,7 +107,7 @@ public class SimulatedAnnealing<E> extends Algorithm<E> implements Optimizable {
      * @return whether or not the new solution should be accepted
      */
     private boolean doAccept(Candidate<E> current, Candidate<E> newSample) {
-        return newSample.getCost() < current.getCost() | Math.exp(-(newSample.getCost() - current.getCost()) / temperature) > Math.random();
+        return newSample.getCost() < current.getCost() | Math.exp(-(newSample.getCost() - current.getCost()) / temperature) > rng.nextDouble();
     }
 
     @Override
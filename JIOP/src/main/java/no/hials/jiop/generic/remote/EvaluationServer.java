@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.remote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import no.hials.jiop.generic.Evaluator;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.candidates.DoubleArrayCandidate;
+
+/**
+ * Evaluates batches of candidates on behalf of RemoteEvaluators. The server
+ * can be reached over TCP once started, or in-process through a
+ * LoopbackTransport. Each batch is evaluated with evaluateAll(), so the
+ * parallelism of the wrapped evaluator is used within a batch.
+ *
+ * A request is an EVALUATE frame holding a batch id, the number of
+ * candidates, the dimension and the elements. The reply is a COSTS frame
+ * holding the batch id, the number of candidates and the costs, or an ERROR
+ * frame holding the batch id and a message.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class EvaluationServer implements Closeable {
+
+    static final byte EVALUATE = 10, COSTS = 11, ERROR = 12;
+
+    private final Evaluator<double[]> evaluator;
+    private ServerSocketChannel server;
+
+    /**
+     * Creates a server for the given evaluator
+     *
+     * @param evaluator the evaluator doing the actual work
+     */
+    public EvaluationServer(Evaluator<double[]> evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Evaluates one request
+     *
+     * @param request the request frame, positioned at the type byte
+     * @return the reply frame, as created by FrameCodec.allocate()
+     */
+    public ByteBuffer handle(ByteBuffer request) {
+        byte type = request.get();
+        long batchId = request.getLong();
+        try {
+            if (type != EVALUATE) {
+                throw new IllegalArgumentException("Unexpected frame type " + type);
+            }
+            int count = request.getInt();
+            int dimension = request.getInt();
+            if (dimension != evaluator.getDimension() || count < 0 || (long) count * dimension * 8 > request.remaining()) {
+                throw new IllegalArgumentException("Invalid batch: count=" + count + ", dimension=" + dimension);
+            }
+            List<Candidate<double[]>> candidates = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                double[] elements = new double[dimension];
+                for (int j = 0; j < dimension; j++) {
+                    elements[j] = request.getDouble();
+                }
+                candidates.add(new DoubleArrayCandidate(elements));
+            }
+            evaluator.evaluateAll(candidates);
+            ByteBuffer reply = FrameCodec.allocate(COSTS, 12 + 8 * count);
+            reply.putLong(batchId).putInt(count);
+            for (Candidate<double[]> c : candidates) {
+                reply.putDouble(c.getCost());
+            }
+            return reply;
+        } catch (RuntimeException ex) {
+            Logger.getLogger(EvaluationServer.class.getName()).log(Level.SEVERE, "Failed to evaluate batch " + batchId, ex);
+            byte[] message = String.valueOf(ex).getBytes(StandardCharsets.UTF_8);
+            ByteBuffer reply = FrameCodec.allocate(ERROR, 12 + message.length);
+            reply.putLong(batchId).putInt(message.length).put(message);
+            return reply;
+        }
+    }
+
+    /**
+     * Starts accepting connections. The accepting thread keeps the JVM alive
+     * until the server is closed, while each connection is served by its own
+     * daemon thread.
+     *
+     * @param port the port, or 0 for any free port
+     * @return the port the server listens on
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized int start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(port));
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    serve(server.accept());
+                }
+            } catch (IOException ex) {
+                if (server.isOpen()) {
+                    Logger.getLogger(EvaluationServer.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        }, "jiop-evaluation-server");
+        acceptor.start();
+        return getPort();
+    }
+
+    private void serve(final SocketChannel channel) throws IOException {
+        channel.socket().setTcpNoDelay(true);
+        Thread connection = new Thread(() -> {
+            try (SocketChannel c = channel) {
+                while (true) {
+                    FrameCodec.write(c, handle(FrameCodec.read(c)));
+                }
+            } catch (IOException ex) {
+                Logger.getLogger(EvaluationServer.class.getName()).log(Level.FINE, "Connection closed", ex);
+            }
+        }, "jiop-evaluation-" + channel.socket().getRemoteSocketAddress());
+        connection.setDaemon(true);
+        connection.start();
+    }
+
+    /**
+     * Getter for the port the server listens on
+     *
+     * @return the local port, or -1 if not started
+     */
+    public synchronized int getPort() {
+        return server == null ? -1 : server.socket().getLocalPort();
+    }
+
+    /**
+     * Getter for the evaluator
+     *
+     * @return the wrapped evaluator
+     */
+    public Evaluator<double[]> getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Stops accepting new connections
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.remote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * A connection to an evaluation worker used by RemoteEvaluator. Request
+ * frames are sent with send(), while reply frames are passed to the reply
+ * handler, possibly from another thread and in any order.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public interface EvaluationTransport extends Closeable {
+
+    /**
+     * Sends a request frame created by FrameCodec.allocate()
+     *
+     * @param request the request frame
+     * @throws IOException if the request could not be sent
+     */
+    public void send(ByteBuffer request) throws IOException;
+
+    /**
+     * Sets the handler receiving the reply frames, positioned at the type
+     * byte. Must be set before the first request is sent.
+     *
+     * @param handler the reply handler
+     */
+    public void setReplyHandler(Consumer<ByteBuffer> handler);
+
+    /**
+     * Whether or not the transport can still be used. Requests in flight on
+     * a closed transport are lost.
+     *
+     * @return true if open, false otherwise
+     */
+    public boolean isOpen();
+}
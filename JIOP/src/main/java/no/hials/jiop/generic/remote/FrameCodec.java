@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.remote;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.candidates.DoubleArrayCandidate;
+
+/**
+ * Length prefixed binary frames used by the remote island and evaluation
+ * protocols. A frame is a four byte length, followed by a one byte type and
+ * the payload. Candidates are encoded as their cost followed by their
+ * double[] elements, all in network byte order.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public final class FrameCodec {
+
+    /**
+     * The largest accepted frame, to guard against corrupt length prefixes
+     */
+    public static final int MAX_FRAME_SIZE = 64 * 1024 * 1024;
+
+    private FrameCodec() {
+    }
+
+    /**
+     * Allocates a frame with room for the given payload size. The type and a
+     * placeholder length are already written.
+     *
+     * @param type the frame type
+     * @param payloadSize the payload size in bytes
+     * @return the frame, ready for the payload to be put
+     */
+    public static ByteBuffer allocate(byte type, int payloadSize) {
+        ByteBuffer frame = ByteBuffer.allocate(5 + payloadSize);
+        frame.putInt(0).put(type);
+        return frame;
+    }
+
+    /**
+     * Writes a frame created by allocate() to the channel, filling in its
+     * length
+     *
+     * @param channel the channel
+     * @param frame the frame
+     * @throws IOException if the frame cannot be written
+     */
+    public static void write(WritableByteChannel channel, ByteBuffer frame) throws IOException {
+        frame.putInt(0, frame.position() - 4);
+        frame.flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+    /**
+     * Reads one frame from a blocking channel
+     *
+     * @param channel the channel
+     * @return the frame, positioned at the type byte
+     * @throws IOException if the channel is closed or the frame is malformed
+     */
+    public static ByteBuffer read(ReadableByteChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(channel, header);
+        int length = header.getInt(0);
+        if (length < 1 || length > MAX_FRAME_SIZE) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        ByteBuffer frame = ByteBuffer.allocate(length);
+        readFully(channel, frame);
+        frame.flip();
+        return frame;
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Channel closed by peer");
+            }
+        }
+    }
+
+    /**
+     * The number of bytes needed to encode the candidates
+     *
+     * @param count the number of candidates
+     * @param dimension the dimension of the candidates
+     * @return the encoded size
+     */
+    public static int candidatesSize(int count, int dimension) {
+        return 8 + count * 8 * (dimension + 1);
+    }
+
+    /**
+     * Encodes a frame of candidates
+     *
+     * @param type the frame type
+     * @param candidates the candidates, which must all have the same
+     * dimension
+     * @return the frame
+     */
+    public static ByteBuffer encodeCandidates(byte type, List<? extends Candidate<double[]>> candidates) {
+        int dimension = candidates.isEmpty() ? 0 : candidates.get(0).getElements().length;
+        ByteBuffer frame = allocate(type, candidatesSize(candidates.size(), dimension));
+        putCandidates(frame, candidates, dimension);
+        return frame;
+    }
+
+    /**
+     * Puts the candidates into the buffer
+     *
+     * @param buffer the buffer
+     * @param candidates the candidates
+     * @param dimension the dimension of the candidates
+     */
+    public static void putCandidates(ByteBuffer buffer, List<? extends Candidate<double[]>> candidates, int dimension) {
+        buffer.putInt(candidates.size()).putInt(dimension);
+        for (Candidate<double[]> c : candidates) {
+            double[] elements = c.getElements();
+            if (elements.length != dimension) {
+                throw new IllegalArgumentException("Expected dimension " + dimension + ", was " + elements.length);
+            }
+            buffer.putDouble(c.getCost());
+            for (double d : elements) {
+                buffer.putDouble(d);
+            }
+        }
+    }
+
+    /**
+     * Decodes candidates from the current position of the buffer
+     *
+     * @param buffer the buffer
+     * @return the candidates
+     */
+    public static List<Candidate<double[]>> getCandidates(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        int dimension = buffer.getInt();
+        if (count < 0 || dimension < 0 || (long) count * (dimension + 1) * 8 > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt candidate encoding: count=" + count + ", dimension=" + dimension);
+        }
+        List<Candidate<double[]>> candidates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double cost = buffer.getDouble();
+            double[] elements = new double[dimension];
+            for (int j = 0; j < dimension; j++) {
+                elements[j] = buffer.getDouble();
+            }
+            candidates.add(new DoubleArrayCandidate(elements, cost));
+        }
+        return candidates;
+    }
+}
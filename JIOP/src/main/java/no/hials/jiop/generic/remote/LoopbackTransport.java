@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.remote;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * An in-process evaluation transport which hands the requests directly to an
+ * EvaluationServer, without any sockets. Requests are processed in order on
+ * a single daemon thread, like on a connection to a remote worker. Useful
+ * for testing, and for running the remote protocol offline.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class LoopbackTransport implements EvaluationTransport {
+
+    private final EvaluationServer server;
+    private final ExecutorService worker;
+    private volatile Consumer<ByteBuffer> handler;
+    private volatile boolean open = true;
+
+    /**
+     * Creates a transport to the given server
+     *
+     * @param server the server handling the requests
+     */
+    public LoopbackTransport(EvaluationServer server) {
+        this.server = server;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "jiop-loopback");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public void send(ByteBuffer request) throws IOException {
+        request.flip();
+        request.position(4);
+        try {
+            worker.execute(() -> {
+                ByteBuffer reply = server.handle(request);
+                reply.flip();
+                reply.position(4);
+                if (open) {
+                    handler.accept(reply);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            throw new IOException("Transport is closed", ex);
+        }
+    }
+
+    @Override
+    public void setReplyHandler(Consumer<ByteBuffer> handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Closes the transport. Replies to requests still in flight are dropped,
+     * as if the connection was lost.
+     */
+    @Override
+    public void close() {
+        open = false;
+        worker.shutdownNow();
+    }
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.remote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import no.hials.jiop.generic.Evaluator;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.candidates.DoubleArrayCandidate;
+import no.hials.jiop.generic.temination.CancellationToken;
+
+/**
+ * An evaluator which farms the candidates out to remote EvaluationServers.
+ * evaluateAll() splits the dirty candidates into batches, and pipelines them
+ * over the transports with at most maxInFlight batches outstanding per
+ * transport. A batch which is not answered within the timeout, or whose
+ * transport is lost, is sent again on another transport, up to maxAttempts
+ * times.
+ *
+ * Any algorithm evaluating its candidates through evaluateAll() can use
+ * remote workers this way without modifications.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class RemoteEvaluator extends Evaluator<double[]> implements Closeable {
+
+    private final List<Connection> connections;
+    private final Map<Long, Batch> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong nextBatchId = new AtomicLong();
+
+    private int batchSize = 16;
+    private int maxInFlight = 2;
+    private long timeout = 10000;
+    private int maxAttempts = 3;
+
+    private int nextConnection;
+
+    /**
+     * Creates an evaluator using the given transports
+     *
+     * @param dimension the problem dimensionality
+     * @param transports connections to the evaluation servers
+     */
+    public RemoteEvaluator(int dimension, List<? extends EvaluationTransport> transports) {
+        super(dimension);
+        if (transports.isEmpty()) {
+            throw new IllegalArgumentException("At least one transport is required!");
+        }
+        this.connections = new ArrayList<>(transports.size());
+        for (EvaluationTransport transport : transports) {
+            final Connection connection = new Connection(transport, maxInFlight);
+            transport.setReplyHandler(reply -> onReply(connection, reply));
+            connections.add(connection);
+        }
+    }
+
+    @Override
+    public double getCost(double[] elements) {
+        Candidate<double[]> candidate = new DoubleArrayCandidate(elements);
+        evaluateRemotely(Collections.singletonList(candidate), null);
+        return candidate.getCost();
+    }
+
+    /**
+     * Evaluates all the dirty candidates in the list on the remote servers,
+     * and returns once every candidate has been evaluated. Once the token is
+     * cancelled no more batches are sent, and the candidates of the batches
+     * not yet sent are skipped.
+     *
+     * @param candidates the candidates to evaluate
+     * @param token the cancellation token, or null
+     * @return the updated candidates
+     * @throws RuntimeException if a batch fails on the server, or cannot be
+     * evaluated within maxAttempts attempts
+     */
+    @Override
+    public List<Candidate<double[]>> evaluateAll(List<Candidate<double[]>> candidates, CancellationToken token) {
+        countEvaluations(evaluateRemotely(candidates, token));
+        return candidates;
+    }
+
+    /**
+     * Evaluates the dirty candidates on the remote servers
+     *
+     * @return the number of candidates evaluated
+     */
+    private int evaluateRemotely(List<Candidate<double[]>> candidates, CancellationToken token) {
+        int numEvaluated = 0;
+        BlockingQueue<Batch> completed = new LinkedBlockingQueue<>();
+        Deque<Batch> pending = new ArrayDeque<>();
+        List<Candidate<double[]>> batch = new ArrayList<>(batchSize);
+        for (Candidate<double[]> c : candidates) {
+            if (c.isDirty()) {
+                batch.add(c);
+                numEvaluated++;
+                if (batch.size() == batchSize) {
+                    pending.add(new Batch(batch, completed));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            pending.add(new Batch(batch, completed));
+        }
+        List<Batch> outstanding = new ArrayList<>(pending.size());
+        int remaining = pending.size();
+        try {
+            while (remaining > 0) {
+                if (token != null && !pending.isEmpty() && token.isCancelled()) {
+                    for (Batch b : pending) {
+                        for (Candidate<double[]> c : b.candidates) {
+                            markSkipped(c);
+                        }
+                        numEvaluated -= b.candidates.size();
+                        remaining--;
+                    }
+                    pending.clear();
+                    continue;
+                }
+                dispatch(pending, outstanding);
+                Batch done = completed.poll(Math.min(timeout, 10), TimeUnit.MILLISECONDS);
+                if (done != null) {
+                    if (done.error != null) {
+                        throw new RuntimeException("Remote evaluation failed: " + done.error);
+                    }
+                    outstanding.remove(done);
+                    remaining--;
+                } else {
+                    redispatchLost(pending, outstanding);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for remote evaluations", ex);
+        } finally {
+            for (Batch b : outstanding) {
+                if (inFlight.remove(b.id, b)) {
+                    b.connection.permits.release();
+                }
+            }
+        }
+        return numEvaluated;
+    }
+
+    /**
+     * Sends pending batches as long as some transport has room for more
+     */
+    private void dispatch(Deque<Batch> pending, List<Batch> outstanding) {
+        while (!pending.isEmpty()) {
+            Batch b = pending.peek();
+            Connection connection = acquireConnection(b.connection);
+            if (connection == null) {
+                return;
+            }
+            pending.poll();
+            b.id = nextBatchId.getAndIncrement();
+            b.connection = connection;
+            b.deadline = System.currentTimeMillis() + timeout;
+            b.attempts++;
+            inFlight.put(b.id, b);
+            outstanding.add(b);
+            try {
+                connection.transport.send(encode(b));
+            } catch (IOException | RuntimeException ex) {
+                Logger.getLogger(RemoteEvaluator.class.getName()).log(Level.SEVERE, "Failed to send batch " + b.id, ex);
+                if (inFlight.remove(b.id, b)) {
+                    connection.permits.release();
+                }
+                outstanding.remove(b);
+                b.attempts--;
+                pending.addFirst(b);
+                closeQuietly(connection);
+            }
+        }
+    }
+
+    /**
+     * Picks the next open transport, round robin, which has room for
+     * another batch. The transport a batch was lost on is only used again if
+     * it is the only open one.
+     *
+     * @param avoid the transport the batch was last sent on, or null
+     * @return the connection, or null if all are busy
+     * @throws RuntimeException if all the transports are closed
+     */
+    private synchronized Connection acquireConnection(Connection avoid) {
+        boolean anyOpen = false;
+        boolean othersOpen = false;
+        for (int i = 0; i < connections.size(); i++) {
+            Connection connection = connections.get(nextConnection);
+            nextConnection = (nextConnection + 1) % connections.size();
+            if (connection.transport.isOpen()) {
+                anyOpen = true;
+                if (connection != avoid) {
+                    othersOpen = true;
+                    if (connection.permits.tryAcquire()) {
+                        return connection;
+                    }
+                }
+            }
+        }
+        if (!anyOpen) {
+            throw new RuntimeException("All evaluation transports are closed!");
+        }
+        if (!othersOpen && avoid.permits.tryAcquire()) {
+            return avoid;
+        }
+        return null;
+    }
+
+    /**
+     * Puts batches which timed out, or whose transport was lost, back in the
+     * pending queue
+     */
+    private void redispatchLost(Deque<Batch> pending, List<Batch> outstanding) {
+        long now = System.currentTimeMillis();
+        Iterator<Batch> it = outstanding.iterator();
+        while (it.hasNext()) {
+            Batch b = it.next();
+            if (now < b.deadline && b.connection.transport.isOpen()) {
+                continue;
+            }
+            if (!inFlight.remove(b.id, b)) {
+                continue; //the reply arrived in the meantime
+            }
+            b.connection.permits.release();
+            it.remove();
+            if (b.attempts >= maxAttempts) {
+                throw new RuntimeException("Batch of " + b.candidates.size() + " candidates failed after " + b.attempts + " attempts");
+            }
+            Logger.getLogger(RemoteEvaluator.class.getName()).log(Level.WARNING, "Re-dispatching batch {0}", b.id);
+            pending.addFirst(b);
+        }
+    }
+
+    private ByteBuffer encode(Batch b) {
+        int dimension = getDimension();
+        ByteBuffer frame = FrameCodec.allocate(EvaluationServer.EVALUATE, 16 + 8 * b.candidates.size() * dimension);
+        frame.putLong(b.id).putInt(b.candidates.size()).putInt(dimension);
+        for (Candidate<double[]> c : b.candidates) {
+            for (double d : c.getElements()) {
+                frame.putDouble(d);
+            }
+        }
+        return frame;
+    }
+
+    private void onReply(Connection connection, ByteBuffer reply) {
+        byte type = reply.get();
+        long id = reply.getLong();
+        Batch b = inFlight.get(id);
+        if (b == null || b.connection != connection || !inFlight.remove(id, b)) {
+            return; //late reply to a batch which has been re-dispatched
+        }
+        connection.permits.release();
+        if (type == EvaluationServer.COSTS) {
+            int count = reply.getInt();
+            if (count != b.candidates.size()) {
+                b.error = "expected " + b.candidates.size() + " costs, got " + count;
+            } else {
+                for (Candidate<double[]> c : b.candidates) {
+                    c.setCost(reply.getDouble());
+                }
+            }
+        } else if (type == EvaluationServer.ERROR) {
+            byte[] message = new byte[reply.getInt()];
+            reply.get(message);
+            b.error = new String(message, StandardCharsets.UTF_8);
+        } else {
+            b.error = "unexpected frame type " + type;
+        }
+        b.owner.add(b);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.transport.close();
+        } catch (IOException ex) {
+            Logger.getLogger(RemoteEvaluator.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * Getter for the maximum number of candidates per batch
+     *
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of candidates sent per batch
+     *
+     * @param batchSize the batch size, at least 1
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, was " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Getter for the maximum number of batches in flight per transport
+     *
+     * @return the in-flight limit
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Sets the maximum number of batches in flight per transport. Must not
+     * be changed while evaluations are in progress.
+     *
+     * @param maxInFlight the in-flight limit, at least 1
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("In-flight limit must be at least 1, was " + maxInFlight);
+        }
+        for (Connection connection : connections) {
+            connection.permits = new Semaphore(maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Getter for the time to wait for a batch before sending it again
+     *
+     * @return the timeout in milliseconds
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the time to wait for a batch before sending it again
+     *
+     * @param timeout the timeout in milliseconds
+     */
+    public void setTimeout(long timeout) {
+        if (timeout < 1) {
+            throw new IllegalArgumentException("Timeout must be positive, was " + timeout);
+        }
+        this.timeout = timeout;
+    }
+
+    /**
+     * Getter for the number of times a batch is sent before giving up
+     *
+     * @return the maximum number of attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Sets the number of times a batch is sent before giving up
+     *
+     * @param maxAttempts the maximum number of attempts, at least 1
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1, was " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Closes all the transports
+     */
+    @Override
+    public void close() {
+        for (Connection connection : connections) {
+            closeQuietly(connection);
+        }
+    }
+
+    private static class Connection {
+
+        final EvaluationTransport transport;
+        volatile Semaphore permits;
+
+        Connection(EvaluationTransport transport, int maxInFlight) {
+            this.transport = transport;
+            this.permits = new Semaphore(maxInFlight);
+        }
+    }
+
+    private static class Batch {
+
+        final List<Candidate<double[]>> candidates;
+        final BlockingQueue<Batch> owner;
+        volatile long id;
+        volatile Connection connection;
+        long deadline;
+        int attempts;
+        volatile String error;
+
+        Batch(List<Candidate<double[]>> candidates, BlockingQueue<Batch> owner) {
+            this.candidates = candidates;
+            this.owner = owner;
+            this.id = -1;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.remote;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.candidates.CandidateSolution;
+import no.hials.jiop.generic.island.MigrationTopology;
+import no.hials.jiop.generic.temination.TerminationCriteria;
+import no.hials.jiop.generic.temination.TerminationData;
+import no.hials.jiop.generic.temination.TimeElapsedCriteria;
+
+/**
+ * Coordinates islands running in other processes, possibly on other hosts.
+ * Each island is a RemoteIslandWorker connecting to this coordinator. After
+ * every migration interval the workers report their best candidates and
+ * their evaluation count. The coordinator uses the candidates to track the
+ * global best and forwards them to other islands according to the migration
+ * topology. The termination criteria are checked between migrations, where
+ * iterations count migration periods and evaluations are summed over all
+ * the workers.
+ *
+ * A worker which disconnects, or does not report within the report timeout,
+ * is dropped, and the run continues with the remaining ones. Workers which
+ * have not connected within the connect timeout are treated as dropped as
+ * well. See RemoteIslandLauncher for a command line entry point starting
+ * the coordinator and the workers.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class RemoteIslandCoordinator implements Closeable {
+
+    static final byte CONFIGURE = 1, REPORT = 2, MIGRANTS = 3, STOP = 4;
+
+    private final ServerSocketChannel server;
+    private final int numIslands;
+    private final List<SocketChannel> workers;
+    private final List<ReadableByteChannel> inputs;
+
+    private int migrationInterval = 10;
+    private int numMigrants = 1;
+    private MigrationTopology migrationTopology = MigrationTopology.RING;
+    private long connectTimeout = 60000;
+    private long reportTimeout = 60000;
+
+    private final SplittableRandom rng = new SplittableRandom();
+
+    /**
+     * Creates a coordinator listening on the given port
+     *
+     * @param port the port, or 0 for any free port
+     * @param numIslands the number of workers to wait for
+     * @throws IOException if the port cannot be bound
+     */
+    public RemoteIslandCoordinator(int port, int numIslands) throws IOException {
+        if (numIslands < 1) {
+            throw new IllegalArgumentException("Number of islands must be at least 1, was " + numIslands);
+        }
+        this.numIslands = numIslands;
+        this.workers = new ArrayList<>(Collections.nCopies(numIslands, (SocketChannel) null));
+        this.inputs = new ArrayList<>(Collections.nCopies(numIslands, (ReadableByteChannel) null));
+        this.server = ServerSocketChannel.open();
+        this.server.bind(new InetSocketAddress(port));
+    }
+
+    /**
+     * Getter for the port the coordinator listens on
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Waits for the workers to connect, and runs the islands until one of
+     * the criterias is met. If no criteria is supplied, the run stops after
+     * approx. 100 ms.
+     *
+     * @param criterias stopping criterias
+     * @return the best solution found by any island
+     * @throws IOException if no worker connects, or all of them are lost
+     */
+    public CandidateSolution<double[]> run(TerminationCriteria... criterias) throws IOException {
+        if (criterias == null || criterias.length == 0) {
+            criterias = new TerminationCriteria[]{new TimeElapsedCriteria(100l)};
+        }
+        long connectDeadline = System.currentTimeMillis() + connectTimeout;
+        for (int i = 0; i < numIslands; i++) {
+            SocketChannel worker = accept(connectDeadline);
+            if (worker == null) {
+                Logger.getLogger(RemoteIslandCoordinator.class.getName()).log(Level.WARNING, "Only {0} of {1} workers connected within {2} ms", new Object[]{i, numIslands, Long.toString(connectTimeout)});
+                break;
+            }
+            worker.socket().setTcpNoDelay(true);
+            workers.set(i, worker);
+            inputs.set(i, Channels.newChannel(worker.socket().getInputStream()));
+            ByteBuffer frame = FrameCodec.allocate(CONFIGURE, 12);
+            frame.putInt(i).putInt(migrationInterval).putInt(numMigrants);
+            send(i, frame);
+        }
+        if (numAlive() == 0) {
+            throw new IOException("No worker connected within " + connectTimeout + " ms");
+        }
+        long t0 = System.currentTimeMillis();
+        long timeElapsed = 0;
+        long[] evaluations = new long[numIslands];
+        long numEvaluations = 0;
+        int numEpochs = 0;
+        Candidate<double[]> best = null;
+        boolean terminate = false;
+        while (!terminate) {
+            List<List<Candidate<double[]>>> reports = new ArrayList<>(numIslands);
+            long reportDeadline = System.currentTimeMillis() + reportTimeout;
+            for (int i = 0; i < numIslands; i++) {
+                List<Candidate<double[]>> report = receiveReport(i, evaluations, reportDeadline);
+                for (Candidate<double[]> c : report) {
+                    if (best == null || c.getCost() < best.getCost()) {
+                        best = c;
+                    }
+                }
+                reports.add(report);
+            }
+            if (best == null) {
+                throw new IOException("All workers were lost before reporting");
+            }
+            timeElapsed = System.currentTimeMillis() - t0;
+            numEvaluations = 0;
+            for (long e : evaluations) {
+                numEvaluations += e;
+            }
+            numEpochs++;
+            for (TerminationCriteria tc : criterias) {
+                if (tc.souldTerminate(new TerminationData(best.getCost(), timeElapsed, numEpochs, numEvaluations))) {
+                    terminate = true;
+                }
+            }
+            if (terminate || numAlive() == 0) {
+                break;
+            }
+            List<List<Candidate<double[]>>> inboxes = new ArrayList<>(numIslands);
+            for (int i = 0; i < numIslands; i++) {
+                inboxes.add(new ArrayList<>());
+            }
+            for (int s = 0; s < numIslands; s++) {
+                for (int t : migrationTopology.targets(s, numIslands, rng)) {
+                    inboxes.get(t).addAll(reports.get(s));
+                }
+            }
+            for (int i = 0; i < numIslands; i++) {
+                send(i, FrameCodec.encodeCandidates(MIGRANTS, inboxes.get(i)));
+            }
+        }
+        for (int i = 0; i < numIslands; i++) {
+            send(i, FrameCodec.allocate(STOP, 0));
+        }
+        return new CandidateSolution<>(best, best.getCost(), numEpochs, timeElapsed, numEvaluations);
+    }
+
+    /**
+     * Waits for the next connection until the deadline
+     *
+     * @return the connected worker, or null if the deadline passed
+     */
+    private SocketChannel accept(long deadline) throws IOException {
+        long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return null;
+        }
+        server.socket().setSoTimeout((int) Math.min(Integer.MAX_VALUE, remaining));
+        try {
+            return server.socket().accept().getChannel();
+        } catch (SocketTimeoutException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the report of an island, dropping the island if the report does
+     * not arrive before the deadline
+     */
+    private List<Candidate<double[]>> receiveReport(int island, long[] evaluations, long deadline) {
+        SocketChannel worker = workers.get(island);
+        if (worker != null) {
+            try {
+                long remaining = deadline - System.currentTimeMillis();
+                worker.socket().setSoTimeout((int) Math.max(1, Math.min(Integer.MAX_VALUE, remaining)));
+                ByteBuffer frame = FrameCodec.read(inputs.get(island));
+                byte type = frame.get();
+                if (type != REPORT) {
+                    throw new IOException("Expected a report, got frame type " + type);
+                }
+                evaluations[island] = frame.getLong();
+                return FrameCodec.getCandidates(frame);
+            } catch (IOException | RuntimeException ex) {
+                Logger.getLogger(RemoteIslandCoordinator.class.getName()).log(Level.SEVERE, "Dropping island " + island, ex);
+                drop(island);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private void send(int island, ByteBuffer frame) {
+        SocketChannel worker = workers.get(island);
+        if (worker != null) {
+            try {
+                FrameCodec.write(worker, frame);
+            } catch (IOException ex) {
+                Logger.getLogger(RemoteIslandCoordinator.class.getName()).log(Level.SEVERE, "Dropping island " + island, ex);
+                drop(island);
+            }
+        }
+    }
+
+    private void drop(int island) {
+        try {
+            workers.get(island).close();
+        } catch (IOException ex) {
+            Logger.getLogger(RemoteIslandCoordinator.class.getName()).log(Level.SEVERE, null, ex);
+        }
+        workers.set(island, null);
+        inputs.set(island, null);
+    }
+
+    private int numAlive() {
+        int n = 0;
+        for (SocketChannel worker : workers) {
+            if (worker != null) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Getter for the number of iterations the workers run between
+     * migrations
+     *
+     * @return the migration interval
+     */
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    /**
+     * Sets the number of iterations the workers run between migrations. Must
+     * be set before run() is invoked.
+     *
+     * @param migrationInterval the migration interval, at least 1
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval must be at least 1, was " + migrationInterval);
+        }
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * Getter for the number of migrants each worker reports per migration
+     *
+     * @return the number of migrants
+     */
+    public int getNumMigrants() {
+        return numMigrants;
+    }
+
+    /**
+     * Sets the number of migrants each worker reports per migration. Must be
+     * set before run() is invoked.
+     *
+     * @param numMigrants the number of migrants, at least 1
+     */
+    public void setNumMigrants(int numMigrants) {
+        if (numMigrants < 1) {
+            throw new IllegalArgumentException("Number of migrants must be at least 1, was " + numMigrants);
+        }
+        this.numMigrants = numMigrants;
+    }
+
+    /**
+     * Getter for the time run() waits for the workers to connect
+     *
+     * @return the connect timeout in milliseconds
+     */
+    public long getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Sets the time run() waits for the workers to connect. The run starts
+     * with the workers connected by then. Must be set before run() is
+     * invoked.
+     *
+     * @param connectTimeout the connect timeout in milliseconds
+     */
+    public void setConnectTimeout(long connectTimeout) {
+        if (connectTimeout < 1) {
+            throw new IllegalArgumentException("Timeout must be positive, was " + connectTimeout);
+        }
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Getter for the time the workers have to report after a migration
+     *
+     * @return the report timeout in milliseconds
+     */
+    public long getReportTimeout() {
+        return reportTimeout;
+    }
+
+    /**
+     * Sets the time the workers have to run one migration interval and
+     * report. A worker which has not reported by then is dropped, so the
+     * timeout should leave room for the slowest island.
+     *
+     * @param reportTimeout the report timeout in milliseconds
+     */
+    public void setReportTimeout(long reportTimeout) {
+        if (reportTimeout < 1) {
+            throw new IllegalArgumentException("Timeout must be positive, was " + reportTimeout);
+        }
+        this.reportTimeout = reportTimeout;
+    }
+
+    /**
+     * Getter for the migration topology
+     *
+     * @return the migration topology
+     */
+    public MigrationTopology getMigrationTopology() {
+        return migrationTopology;
+    }
+
+    /**
+     * Sets which islands receive the migrants of each island
+     *
+     * @param migrationTopology the migration topology
+     */
+    public void setMigrationTopology(MigrationTopology migrationTopology) {
+        this.migrationTopology = migrationTopology;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (int i = 0; i < numIslands; i++) {
+            if (workers.get(i) != null) {
+                drop(i);
+            }
+        }
+        server.close();
+    }
+}
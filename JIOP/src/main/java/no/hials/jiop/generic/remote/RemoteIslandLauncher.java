@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.remote;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import no.hials.jiop.benchmark.BenchmarkFunction;
+import no.hials.jiop.benchmark.BenchmarkSuite;
+import no.hials.jiop.generic.Algorithm;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.candidates.CandidateSolution;
+import no.hials.jiop.generic.candidates.particles.DoubleArrayParticleFactory;
+import no.hials.jiop.generic.evolutionary.de.DifferentialEvolution;
+import no.hials.jiop.generic.factories.DoubleArrayCandidateFactory;
+import no.hials.jiop.generic.swarm.abs.ArtificialBeeColony;
+import no.hials.jiop.generic.swarm.pso.MultiSwarmOptimization;
+import no.hials.jiop.generic.swarm.pso.ParticleSwarmOptimization;
+import no.hials.jiop.generic.temination.TimeElapsedCriteria;
+
+/**
+ * Command line entry point for remote island runs on the functions of
+ * BenchmarkSuite.standard(). The coordinator and the workers can be started
+ * as separate processes, possibly on different hosts, or all at once on the
+ * local machine:
+ *
+ * <pre>
+ * coordinator &lt;port&gt; &lt;islands&gt; &lt;millis&gt;
+ * worker &lt;host&gt; &lt;port&gt; [algorithm] [function] [dimension]
+ * local &lt;islands&gt; &lt;millis&gt; [algorithm] [function] [dimension]
+ * </pre>
+ *
+ * The algorithm is one of DE, PSO, MSO and ABC (default DE), the function is
+ * an index into BenchmarkSuite.standard(dimension, 0) (default 0, Sphere)
+ * and the dimension defaults to 10. In local mode the coordinator runs in
+ * this process, and the workers are started as child JVMs with the same
+ * class path.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public final class RemoteIslandLauncher {
+
+    private static final String USAGE = "Usage: RemoteIslandLauncher coordinator <port> <islands> <millis>\n"
+            + "       RemoteIslandLauncher worker <host> <port> [algorithm] [function] [dimension]\n"
+            + "       RemoteIslandLauncher local <islands> <millis> [algorithm] [function] [dimension]\n"
+            + "algorithm: DE, PSO, MSO or ABC (default DE)\n"
+            + "function: index into BenchmarkSuite.standard(dimension, 0) (default 0)\n"
+            + "dimension: the problem dimensionality (default 10)";
+
+    private RemoteIslandLauncher() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            exit(USAGE);
+        }
+        try {
+            switch (args[0]) {
+                case "coordinator":
+                    if (args.length != 4) {
+                        exit(USAGE);
+                    }
+                    try (RemoteIslandCoordinator coordinator = new RemoteIslandCoordinator(Integer.parseInt(args[1]), Integer.parseInt(args[2]))) {
+                        System.out.println(coordinate(coordinator, Long.parseLong(args[3])));
+                    }
+                    break;
+                case "worker":
+                    if (args.length < 3 || args.length > 6) {
+                        exit(USAGE);
+                    }
+                    RemoteIslandWorker worker = new RemoteIslandWorker(createAlgorithm(args, 3));
+                    Candidate<double[]> best = worker.run(args[1], Integer.parseInt(args[2]));
+                    System.out.println("Island " + worker.getIslandId() + ": best cost " + best.getCost());
+                    break;
+                case "local":
+                    if (args.length < 3 || args.length > 6) {
+                        exit(USAGE);
+                    }
+                    local(Integer.parseInt(args[1]), Long.parseLong(args[2]), args);
+                    break;
+                default:
+                    exit(USAGE);
+            }
+        } catch (IllegalArgumentException ex) {
+            exit(ex.getMessage() + "\n" + USAGE);
+        }
+    }
+
+    /**
+     * Runs the coordinator in this process, and the workers as child JVMs
+     */
+    private static void local(int numIslands, long millis, String[] args) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        try (RemoteIslandCoordinator coordinator = new RemoteIslandCoordinator(0, numIslands)) {
+            List<Process> processes = new ArrayList<>(numIslands);
+            try {
+                for (int i = 0; i < numIslands; i++) {
+                    List<String> command = new ArrayList<>();
+                    command.add(java);
+                    command.add("-cp");
+                    command.add(System.getProperty("java.class.path"));
+                    command.add(RemoteIslandLauncher.class.getName());
+                    command.add("worker");
+                    command.add("localhost");
+                    command.add(Integer.toString(coordinator.getPort()));
+                    for (int j = 3; j < args.length; j++) {
+                        command.add(args[j]);
+                    }
+                    processes.add(new ProcessBuilder(command).inheritIO().start());
+                }
+                System.out.println(coordinate(coordinator, millis));
+                for (Process process : processes) {
+                    process.waitFor();
+                }
+            } finally {
+                for (Process process : processes) {
+                    if (process.isAlive()) {
+                        process.destroy();
+                    }
+                }
+            }
+        }
+    }
+
+    private static CandidateSolution<double[]> coordinate(RemoteIslandCoordinator coordinator, long millis) throws IOException {
+        Logger.getLogger(RemoteIslandLauncher.class.getName()).log(Level.INFO, "Waiting for workers on port {0}", Integer.toString(coordinator.getPort()));
+        return coordinator.run(new TimeElapsedCriteria(millis));
+    }
+
+    /**
+     * Creates the algorithm of a worker from the optional arguments
+     * [algorithm] [function] [dimension], starting at the given index
+     */
+    private static Algorithm<double[]> createAlgorithm(String[] args, int from) {
+        String name = args.length > from ? args[from] : "DE";
+        int function = args.length > from + 1 ? Integer.parseInt(args[from + 1]) : 0;
+        int dimension = args.length > from + 2 ? Integer.parseInt(args[from + 2]) : 10;
+        List<BenchmarkFunction> functions = BenchmarkSuite.standard(dimension, 0);
+        if (function < 0 || function >= functions.size()) {
+            throw new IllegalArgumentException("Function must be in [0, " + functions.size() + "), was " + function);
+        }
+        BenchmarkFunction evaluator = functions.get(function);
+        switch (name.toUpperCase(Locale.ROOT)) {
+            case "DE":
+                return new DifferentialEvolution<>(30, 0.9, 0.7, new DoubleArrayCandidateFactory(), evaluator, false);
+            case "PSO":
+                return new ParticleSwarmOptimization<>(40, new DoubleArrayParticleFactory(), evaluator, false);
+            case "MSO":
+                return new MultiSwarmOptimization<>(4, 20, new DoubleArrayParticleFactory(), evaluator, false);
+            case "ABC":
+                return new ArtificialBeeColony<>(60, 12, new DoubleArrayCandidateFactory(), evaluator);
+            default:
+                throw new IllegalArgumentException("Unknown algorithm " + name);
+        }
+    }
+
+    private static void exit(String message) {
+        System.err.println(message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.remote;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import no.hials.jiop.generic.Algorithm;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.temination.NumIterationsCriteria;
+
+/**
+ * Runs an algorithm as one island of a RemoteIslandCoordinator, typically in
+ * its own process. The worker runs the algorithm for one migration interval
+ * at a time, reports its best candidates to the coordinator, and inserts the
+ * migrants it receives in return, until the coordinator tells it to stop.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class RemoteIslandWorker {
+
+    private final Algorithm<double[]> algorithm;
+    private int islandId = -1;
+
+    /**
+     * Creates a worker for the given algorithm
+     *
+     * @param algorithm the algorithm to run
+     */
+    public RemoteIslandWorker(Algorithm<double[]> algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Connects to the coordinator and runs the island until the coordinator
+     * stops it
+     *
+     * @param host the host of the coordinator
+     * @param port the port of the coordinator
+     * @return the best candidate found by this island
+     * @throws IOException if the connection fails
+     */
+    public Candidate<double[]> run(String host, int port) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port))) {
+            channel.socket().setTcpNoDelay(true);
+            ByteBuffer frame = FrameCodec.read(channel);
+            expect(frame.get(), RemoteIslandCoordinator.CONFIGURE);
+            this.islandId = frame.getInt();
+            int migrationInterval = frame.getInt();
+            int numMigrants = frame.getInt();
+
+            long e0 = algorithm.getEvaluations();
+            algorithm.init();
+            while (true) {
+                algorithm.compute(new NumIterationsCriteria(migrationInterval));
+                List<Candidate<double[]>> migrants = algorithm.emigrate(numMigrants);
+                int dimension = migrants.isEmpty() ? 0 : migrants.get(0).getElements().length;
+                frame = FrameCodec.allocate(RemoteIslandCoordinator.REPORT, 8 + FrameCodec.candidatesSize(migrants.size(), dimension));
+                frame.putLong(algorithm.getEvaluations() - e0);
+                FrameCodec.putCandidates(frame, migrants, dimension);
+                FrameCodec.write(channel, frame);
+                frame = FrameCodec.read(channel);
+                byte type = frame.get();
+                if (type == RemoteIslandCoordinator.STOP) {
+                    break;
+                }
+                expect(type, RemoteIslandCoordinator.MIGRANTS);
+                algorithm.immigrate(FrameCodec.getCandidates(frame));
+            }
+        }
+        return algorithm.getBestCandidate();
+    }
+
+    private static void expect(byte type, byte expected) throws IOException {
+        if (type != expected) {
+            throw new IOException("Expected frame type " + expected + ", got " + type);
+        }
+    }
+
+    /**
+     * Getter for the island id assigned by the coordinator
+     *
+     * @return the island id, or -1 if not connected yet
+     */
+    public int getIslandId() {
+        return islandId;
+    }
+
+    /**
+     * Getter for the algorithm
+     *
+     * @return the algorithm run by this worker
+     */
+    public Algorithm<double[]> getAlgorithm() {
+        return algorithm;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.remote;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An evaluation transport over a TCP connection to an EvaluationServer.
+ * Replies are read by a daemon thread, so any number of requests can be
+ * pipelined on the connection.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class SocketTransport implements EvaluationTransport {
+
+    private final SocketChannel channel;
+    private volatile boolean open = true;
+
+    /**
+     * Connects to an evaluation server
+     *
+     * @param host the host of the server
+     * @param port the port of the server
+     * @throws IOException if the connection fails
+     */
+    public SocketTransport(String host, int port) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+        this.channel.socket().setTcpNoDelay(true);
+    }
+
+    @Override
+    public synchronized void send(ByteBuffer request) throws IOException {
+        try {
+            FrameCodec.write(channel, request);
+        } catch (IOException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void setReplyHandler(final Consumer<ByteBuffer> handler) {
+        Thread reader = new Thread(() -> {
+            try {
+                while (open) {
+                    handler.accept(FrameCodec.read(channel));
+                }
+            } catch (IOException ex) {
+                if (open) {
+                    Logger.getLogger(SocketTransport.class.getName()).log(Level.SEVERE, "Lost connection to " + channel, ex);
+                }
+            } finally {
+                close();
+            }
+        }, "jiop-transport-" + channel.socket().getRemoteSocketAddress());
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            Logger.getLogger(SocketTransport.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+}
@@ -63,13 +63,21 @@ public class ArtificialBeeColony<E> extends GeneralPopulationBasedAlgorithm<E> {
         List<Candidate<E>> bestCandidates = (List<Candidate<E>>) population.subList(0, numScouts - 1);
         bestCandidates.add(getBestCandidate());
         int neighborHoodSize = size() / (numScouts);
-        bestCandidates.stream().forEach((c) -> {
+        int remaining = neighborHoodSize - 1;
+        List<Candidate<E>> neighbors = new ArrayList<>(bestCandidates.size() * remaining);
+        for (Candidate<E> c : bestCandidates) {
+            for (int i = 0; i < remaining; i++) {
+                double prox = rng.nextDouble() * Math.abs(0.25 - 0.000001) + 0.000001;
+                neighbors.add(c.neighbor(prox));
+            }
+        }
+        evaluateAll(neighbors);
+        int offset = 0;
+        for (Candidate<E> c : bestCandidates) {
             List<NumericCandidate<E>> neighborhood = new ArrayList<>(neighborHoodSize);
             neighborhood.add((NumericCandidate<E>) c);
-            int remaining = neighborHoodSize - 1;
             for (int i = 0; i < remaining; i++) {
-                double prox = rng.nextDouble() * Math.abs(0.25 - 0.000001) + 0.000001;
-                neighborhood.add((NumericCandidate<E>) evaluate(c.neighbor(prox)));
+                neighborhood.add((NumericCandidate<E>) neighbors.get(offset++));
             }
 
             Collections.sort(neighborhood);
@@ -78,7 +86,7 @@ public class ArtificialBeeColony<E> extends GeneralPopulationBasedAlgorithm<E> {
             for (int i = 0; i < remaining; i++) {
                 newPop.add((NumericCandidate<E>) randomCandidate());
             }
-        });
+        }
         getPopulation().clear();
         getPopulation().addAll(newPop);
         Collections.sort(population);
@@ -26,9 +26,8 @@
 package no.hials.jiop.generic.swarm.bfo;
 
 import java.util.Collections;
-import java.util.concurrent.ExecutionException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.SplittableRandom;
+import java.util.function.BiConsumer;
 import no.hials.jiop.generic.Evaluator;
 import no.hials.jiop.generic.GeneralPopulationBasedAlgorithm;
 import no.hials.jiop.generic.candidates.Candidate;
@@ -76,69 +75,16 @@ public class BacterialForagingOptimization<E> extends GeneralPopulationBasedAlgo
         {
             for (int j = 0; j < nc; j++) // chemotactic loop; the lifespan of each bacterium
             {
+                if (isCancelled()) {
+                    return;
+                }
                 // reset the health of each bacterium to 0.0 
                 for (int i = 0; i < size(); i++) {
                     ((BacteriaCandidate<E>) population.get(i)).setHealth(0);
                 }
 
-                for (Candidate<E> c : population) // each bacterium
-                {
-                    if (multiThreaded) {
-                        getCompletionService().submit(() -> threadingTask1((BacteriaCandidate<E>) c), null);
-                    } else {
-                        threadingTask1((BacteriaCandidate<E>) c);
-                    }
-//                    BacteriaCandidate<E> b = (BacteriaCandidate<E>) c;
-//                    double[] tumble = new double[getDimension()]; // tumble (point in a new direction)
-//                    for (int p = 0; p < getDimension(); p++) {
-//                        tumble[p] = 2.0 * rng.nextDouble() - 1.0;
-//                    } // (hi - lo) * r + lo => random i [-1, +1]
-//                    double rootProduct = 0.0;
-//                    for (int p = 0; p < getDimension(); p++) {
-//                        rootProduct += (tumble[p] * tumble[p]);
-//                    }
-//
-//                    for (int p = 0; p < getDimension(); p++) {
-//                        double value = b.get(p).doubleValue() + (ci * tumble[p]) / rootProduct;
-//                        b.set(p, value);
-//                    } // move in new direction
-//
-//                    // update costs of new position
-//                    b.clamp(0, 1);
-//                    b.setPrevCost(b.getCost());
-//                    evaluate(b);
-//                    b.setHealth(b.getHealth() + b.getCost()); // health is an accumulation of costs during bacterium's life
-//
-//                    // new best?
-//                    setBestCandidateIfBetter(b);
-//
-//                    int m = 0; // swim or not based on prev and curr costs
-//                    while (m < ns && b.getCost() < b.getPrevCost()) // we are improving
-//                    {
-//                        m++; // swim counter
-//                        for (int p = 0; p < getDimension(); p++) {
-//                            double value = b.get(p).doubleValue() + (ci * tumble[p]) / rootProduct;
-//                            b.set(p, value);
-//
-//                        } // move in current direction
-//                        b.clamp(0, 1);
-//                        b.setPrevCost(b.getCost()); // update costs
-//                        evaluate(b);
-//                        setBestCandidateIfBetter(b);
-//                    } // while improving
-//
-//                } // i, each bacterium in the chemotactic loop
-                } // j, chemotactic loop
-
-                if (multiThreaded) {
-                    for (Candidate<E> c : population) {
-                        try {
-                            getCompletionService().take().get();
-                        } catch (InterruptedException | ExecutionException ex) {
-                            Logger.getLogger(BacterialForagingOptimization.class.getName()).log(Level.SEVERE, null, ex);
-                        }
-                    }
-                }
+                forEachBacterium(this::threadingTask1);
+
                 // reproduce the healthiest half of bacteria, eliminate the other half
                 Collections.sort(population, (Candidate<E> c1, Candidate<E> c2) -> {
                     BacteriaCandidate<E> b1 = (BacteriaCandidate<E>) c1;
@@ -157,45 +103,37 @@ public class BacterialForagingOptimization<E> extends GeneralPopulationBasedAlgo
                     population.set(right, getPopulation().get(left).copy());
                 }
 
-            } // k, reproduction loop
+            } // j, chemotactic loop
 
             // eliminate-disperse
-            for (Candidate<E> c : population) {
-                if (multiThreaded) {
-                    getCompletionService().submit(() -> threadingTask2((BacteriaCandidate<E>) c), null);
-                } else {
-                    threadingTask2((BacteriaCandidate<E>) c);
-                }
-//            BacteriaCandidate<E> b = (BacteriaCandidate<E>) c;
-//            double prob = rng.nextDouble();
-//            if (prob < ped) // disperse this bacterium to a random position
-//            {
-//                for (int p = 0; p < getDimension(); p++) {
-//                    double x = rng.nextDouble();
-//                    b.set(p, x);
-//                }
-//                // update costs
-//                b.setHealth(0);
-//                b.setPrevCost(b.getCost());
-//                evaluate(b);
-//
-//                setBestCandidateIfBetter(b);
+            forEachBacterium(this::threadingTask2);
+        } // k, reproduction loop
+    }
+
+    /**
+     * Runs the task on every bacterium, in parallel if multi-threaded. Each
+     * bacterium gets its own generator, derived from the calling thread's
+     * stream and the index of the bacterium, so the outcome does not depend
+     * on how the work is scheduled.
+     *
+     * @param task the task to run
+     */
+    private void forEachBacterium(final BiConsumer<BacteriaCandidate<E>, SplittableRandom> task) {
+        final long seed = rng.nextLong();
+        final int n = size();
+        invokeAll(multiThreaded ? n : 1, t -> {
+            int from = multiThreaded ? t : 0;
+            int to = multiThreaded ? t + 1 : n;
+            for (int i = from; i < to; i++) {
+                task.accept((BacteriaCandidate<E>) population.get(i), new SplittableRandom(seed + i));
             }
-
-//        }
-            if (multiThreaded) {
-                for (Candidate<E> c : population) {
-                    try {
-                        getCompletionService().take().get();
-                    } catch (InterruptedException | ExecutionException ex) {
-                        Logger.getLogger(BacterialForagingOptimization.class.getName()).log(Level.SEVERE, null, ex);
-                    }
-                }
-            }
-        }
+        });
     }
 
-    private void threadingTask1(BacteriaCandidate<E> b) {
+    private void threadingTask1(BacteriaCandidate<E> b, SplittableRandom rng) {
+        if (isCancelled()) {
+            return;
+        }
         double[] tumble = new double[getDimension()]; // tumble (point in a new direction)
         for (int p = 0; p < getDimension(); p++) {
             tumble[p] = 2.0 * rng.nextDouble() - 1.0;
@@ -206,8 +144,7 @@ public class BacterialForagingOptimization<E> extends GeneralPopulationBasedAlgo
         }
 
         for (int p = 0; p < getDimension(); p++) {
-            double value = b.get(p).doubleValue() + (ci * tumble[p]) / rootProduct;
-            b.set(p, value);
+            b.setDouble(p, b.getDouble(p) + (ci * tumble[p]) / rootProduct);
         } // move in new direction
 
         // update costs of new position
@@ -220,13 +157,11 @@ public class BacterialForagingOptimization<E> extends GeneralPopulationBasedAlgo
         setBestCandidateIfBetter(b);
 
         int m = 0; // swim or not based on prev and curr costs
-        while (m < ns && b.getCost() < b.getPrevCost()) // we are improving
+        while (m < ns && b.getCost() < b.getPrevCost() && !isCancelled()) // we are improving
         {
             m++; // swim counter
             for (int p = 0; p < getDimension(); p++) {
-                double value = b.get(p).doubleValue() + (ci * tumble[p]) / rootProduct;
-                b.set(p, value);
-
+                b.setDouble(p, b.getDouble(p) + (ci * tumble[p]) / rootProduct);
             } // move in current direction
             b.clamp(0, 1);
             b.setPrevCost(b.getCost()); // update costs
@@ -235,13 +170,15 @@ public class BacterialForagingOptimization<E> extends GeneralPopulationBasedAlgo
         } // while improving
     }
 
-    private void threadingTask2(BacteriaCandidate<E> b) {
+    private void threadingTask2(BacteriaCandidate<E> b, SplittableRandom rng) {
+        if (isCancelled()) {
+            return;
+        }
         double prob = rng.nextDouble();
         if (prob < ped) // disperse this bacterium to a random position
         {
             for (int p = 0; p < getDimension(); p++) {
-                double x = rng.nextDouble();
-                b.set(p, x);
+                b.setDouble(p, rng.nextDouble());
             }
             // update costs
             b.setHealth(0);
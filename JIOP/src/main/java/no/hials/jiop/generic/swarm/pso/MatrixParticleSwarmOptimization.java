@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.swarm.pso;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import no.hials.jiop.generic.Evaluator;
+import no.hials.jiop.generic.MatrixPopulationBasedAlgorithm;
+import no.hials.jiop.generic.candidates.Candidate;
+import no.hials.jiop.generic.candidates.PopulationMatrix;
+import no.hials.jiop.generic.tuning.Optimizable;
+import no.hials.jiop.util.NormalizationUtility;
+import no.hials.jiop.util.RandomSource;
+
+/**
+ * A Particle Swarm Optimization implementation working directly on a
+ * PopulationMatrix. Positions, velocities and personal bests are stored in
+ * contiguous arrays.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class MatrixParticleSwarmOptimization extends MatrixPopulationBasedAlgorithm implements Optimizable {
+
+    private static final long serialVersionUID = 1L;
+
+    public double omega = 0.729, c1 = 1.49445, c2 = 1.49445, maxVel = 0.26;
+
+    private double[] velocity;
+    private PopulationMatrix localBest;
+    private double[] globalBest;
+    private double globalBestCost;
+
+    private ParticleUpdateKernel kernel = ParticleUpdateKernel.SCALAR;
+
+    public MatrixParticleSwarmOptimization(int size, Evaluator<double[]> evaluator) {
+        this(size, evaluator, "Matrix Particle Swarm Optimization");
+    }
+
+    public MatrixParticleSwarmOptimization(int size, Evaluator<double[]> evaluator, String name) {
+        super(size, evaluator, name);
+    }
+
+    public MatrixParticleSwarmOptimization(int size, double omega, double c1, double c2, double maxVel, Evaluator<double[]> evaluator, String name) {
+        super(size, evaluator, name);
+        this.omega = omega;
+        this.c1 = c1;
+        this.c2 = c2;
+        this.maxVel = maxVel;
+    }
+
+    @Override
+    protected Candidate<double[]> subInit() {
+        Candidate<double[]> best = super.subInit();
+        initSwarm();
+        return best;
+    }
+
+    @Override
+    protected Candidate<double[]> subInit(List<double[]> seeds) {
+        Candidate<double[]> best = super.subInit(seeds);
+        initSwarm();
+        return best;
+    }
+
+    private void initSwarm() {
+        int n = population.size();
+        int dim = population.getDimension();
+        this.velocity = new double[n * dim];
+        this.localBest = new PopulationMatrix(n, dim);
+        for (int i = 0; i < n; i++) {
+            population.copyRow(i, localBest, i);
+        }
+        int best = population.bestIndex();
+        this.globalBest = new double[dim];
+        population.getRow(best, globalBest);
+        this.globalBestCost = population.getCost(best);
+    }
+
+    @Override
+    protected void singleIteration() {
+        int n = population.size();
+        int dim = population.getDimension();
+        double[] x = population.getElements();
+        double[] l = localBest.getElements();
+        SplittableRandom rng = RandomSource.current();
+        for (int p = 0; p < n; p++) {
+            int o = p * dim;
+            kernel.update(x, velocity, o, l, o, globalBest, dim, omega, c1, c2, maxVel, rng);
+        }
+        boolean complete = evaluateAll(population);
+        for (int p = 0; p < n; p++) {
+            double cost = population.getCost(p);
+            if (!complete && cost == Double.MAX_VALUE) {
+                // skipped on cancel, move the particle back to its personal best
+                localBest.copyRow(p, population, p);
+                continue;
+            }
+            if (cost < localBest.getCost(p)) {
+                population.copyRow(p, localBest, p);
+                if (cost < globalBestCost) {
+                    population.getRow(p, globalBest);
+                    globalBestCost = cost;
+                    setBestCandidateIfBetter(population, p);
+                }
+            }
+        }
+    }
+
+    /**
+     * Getter for the kernel used to move the particles
+     *
+     * @return the particle update kernel
+     */
+    public ParticleUpdateKernel getUpdateKernel() {
+        return kernel;
+    }
+
+    /**
+     * Sets the kernel used to move particles stored in primitive arrays
+     *
+     * @param kernel the particle update kernel
+     */
+    public void setUpdateKernel(ParticleUpdateKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    public double getOmega() {
+        return omega;
+    }
+
+    public void setOmega(double omega) {
+        this.omega = omega;
+    }
+
+    public double getC1() {
+        return c1;
+    }
+
+    public void setC1(double c1) {
+        this.c1 = c1;
+    }
+
+    public double getC2() {
+        return c2;
+    }
+
+    public void setC2(double c2) {
+        this.c2 = c2;
+    }
+
+    public double getMaxVel() {
+        return maxVel;
+    }
+
+    public void setMaxVel(double maxVel) {
+        this.maxVel = maxVel;
+    }
+
+    @Override
+    public int getNumberOfFreeParameters() {
+        return 5;
+    }
+
+    @Override
+    public void setFreeParameters(double[] array) {
+        setInitialSize((int) new NormalizationUtility(1, 0, 60, 10).normalize(array[0]));
+        this.omega = new NormalizationUtility(1, 0, 1, 0.01).normalize(array[1]);
+        this.c1 = new NormalizationUtility(1, 0, 2, 0.01).normalize(array[2]);
+        this.c2 = new NormalizationUtility(1, 0, 2, 0.01).normalize(array[3]);
+        this.maxVel = new NormalizationUtility(1, 0, 1, 0.0001).normalize(array[4]);
+    }
+
+    @Override
+    public double[] getFreeParameters() {
+        return new double[]{size(), omega, c1, c2, maxVel};
+    }
+}
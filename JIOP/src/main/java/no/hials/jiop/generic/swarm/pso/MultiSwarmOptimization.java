@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -36,11 +37,16 @@ import no.hials.jiop.generic.Algorithm;
 import no.hials.jiop.generic.Evaluator;
 import no.hials.jiop.util.NormalizationUtility;
 import no.hials.jiop.generic.PopulationBasedAlgorithm;
+import no.hials.jiop.generic.SteadyStateEngine;
+import no.hials.jiop.generic.SteadyStateRule;
 import no.hials.jiop.generic.candidates.Candidate;
 import no.hials.jiop.generic.candidates.NumericCandidate;
+import no.hials.jiop.generic.candidates.particles.DoubleArrayParticle;
 import no.hials.jiop.generic.candidates.particles.ParticleCandidate;
 import no.hials.jiop.generic.factories.NumericCandidateFactory;
+import no.hials.jiop.generic.island.MigrationTopology;
 import no.hials.jiop.generic.tuning.Optimizable;
+import no.hials.jiop.util.RandomSource;
 
 
 /**
@@ -55,6 +61,15 @@ public class MultiSwarmOptimization<E> extends Algorithm<E> implements Populatio
 
     boolean multiThreaded = false;
 
+    private ParticleUpdateKernel kernel = ParticleUpdateKernel.SCALAR;
+
+    private boolean islandMode, steadyState;
+    private int migrationInterval = 10;
+    private MigrationTopology migrationTopology = MigrationTopology.RING;
+
+    private transient SteadyStateEngine<E> steadyStateEngine;
+    private transient SteadyStateRule<E> steadyStateRule;
+
     public MultiSwarmOptimization(int numSwarms, int numParticles, NumericCandidateFactory<E> candidateFactory, Evaluator<E> evalutor, boolean multiThreaded) {
         this(numSwarms, numParticles, candidateFactory, evalutor, multiThreaded ? "MultiThreaded Multi Swarm Optimization" : "SingleThreaded Multi Swarm Optimization", multiThreaded);
     }
@@ -98,7 +113,7 @@ public class MultiSwarmOptimization<E> extends Algorithm<E> implements Populatio
     @Override
     public Candidate<E> subInit(List<E> seeds) {
         Candidate<E> bestCandidate = subInit();
-        double cost = getEvaluator().getCost(seeds.get(0));
+        double cost = getEvaluator().evaluateElements(seeds.get(0));
         if (cost < bestCandidate.getCost()) {
             bestCandidate = generateFromElements(seeds.get(0));
             bestCandidate.setCost(cost);
@@ -108,12 +123,22 @@ public class MultiSwarmOptimization<E> extends Algorithm<E> implements Populatio
 
     @Override
     protected void singleIteration() {
-
-        for (Swarm swarm : swarms) {
+        if (islandMode) {
+            islandIteration();
+            return;
+        }
+        if (steadyState) {
+            steadyStateIteration();
+            return;
+        }
+        final long seed = rng.nextLong();
+        for (int s = 0; s < swarms.size(); s++) {
+            final Swarm swarm = swarms.get(s);
+            final SplittableRandom random = new SplittableRandom(seed + s);
             if (multiThreaded) {
-                getCompletionService().submit(() -> threadingTask(swarm), null);
+                getCompletionService().submit(() -> threadingTask(swarm, random), null);
             } else {
-                threadingTask(swarm);
+                threadingTask(swarm, random);
             }
         }
         if (multiThreaded) {
@@ -127,45 +152,351 @@ public class MultiSwarmOptimization<E> extends Algorithm<E> implements Populatio
         }
     }
 
-    private void threadingTask(final Swarm swarm) {
-        for (ParticleCandidate<E> particle : swarm) {
-            for (int i = 0; i < getDimension(); i++) {
-                double li = particle.getLocalBest().get(i).doubleValue();
-                double si = swarm.swarmBest.get(i).doubleValue();
-                double gi = ((NumericCandidate<E>) getBestCandidate()).get(i).doubleValue();
-                double pi = particle.get(i).doubleValue();
-                double vi = particle.getVelocityAt(i).doubleValue();
-
-                double newVel = (omega * vi)
-                        + (rng.nextDouble() * c1 * (li - pi))
-                        + (rng.nextDouble() * c2 * (si - pi))
-                        + (rng.nextDouble() * c3 * (gi - pi));
-
-                if (Math.abs(newVel) > maxVel) {
-                    newVel = newVel > 0 ? maxVel : -maxVel;
+    /**
+     * Runs migrationInterval iterations on each swarm in parallel, where the
+     * swarms share no state. The global attractor of a swarm is the best
+     * candidate it knows of. Afterwards the swarms exchange their best
+     * particles according to the migration topology.
+     */
+    private void islandIteration() {
+        final int numIslands = swarms.size();
+        final long seed = rng.nextLong();
+        invokeAll(multiThreaded ? numIslands : 1, task -> {
+            int from = multiThreaded ? task : 0;
+            int to = multiThreaded ? task + 1 : numIslands;
+            for (int s = from; s < to; s++) {
+                SplittableRandom rng = new SplittableRandom(seed + s);
+                Swarm swarm = swarms.get(s);
+                for (int i = 0; i < migrationInterval && !isCancelled(); i++) {
+                    for (ParticleCandidate<E> particle : swarm) {
+                        if (isCancelled()) {
+                            break;
+                        }
+                        move(particle, swarm.swarmBest, swarm.islandBest, rng);
+                        evaluate(particle);
+                        updateBests(swarm, particle, false);
+                    }
+                }
+                if (swarm.swarmBest.getCost() < swarm.islandBest.getCost()) {
+                    swarm.islandBest = swarm.swarmBest;
+                }
+            }
+        });
+        migrate();
+    }
+
+    /**
+     * Lets the steady state engine perform one evaluation per particle. A
+     * swarm is a slot of the engine, so its particles and swarm best are
+     * only touched by one worker at a time, and the workers of the engine
+     * keep going until compute() returns.
+     */
+    private void steadyStateIteration() {
+        if (steadyStateEngine == null) {
+            steadyStateEngine = new SteadyStateEngine<>(this);
+            steadyStateRule = new SteadyStateRule<E>() {
+
+                @Override
+                public int slots() {
+                    return swarms.size();
+                }
+
+                @Override
+                public Candidate<E> produce(int slot, SplittableRandom rng) {
+                    Swarm swarm = swarms.get(slot);
+                    ParticleCandidate<E> particle = swarm.get(swarm.next);
+                    swarm.next = (swarm.next + 1) % swarm.size();
+                    move(particle, swarm.swarmBest, (NumericCandidate<E>) peekBestCandidate(), rng);
+                    return particle;
                 }
 
-                double newPos = pi + newVel;
-                if (newPos < 0) {
-                    newPos = 0;
-                } else if (newPos > 1) {
-                    newPos = 1;
+                @Override
+                public void accept(int slot, Candidate<E> candidate) {
+                    updateBests(swarms.get(slot), (ParticleCandidate<E>) candidate, true);
                 }
-                particle.set(i, newPos);
-                particle.setVelocityAt(i, newVel);
+            };
+        }
+        int numEvaluations = 0;
+        for (Swarm swarm : swarms) {
+            numEvaluations += swarm.size();
+        }
+        steadyStateEngine.run(steadyStateRule, numEvaluations);
+    }
+
+    @Override
+    protected void afterCompute() {
+        if (steadyStateEngine != null) {
+            steadyStateEngine.stop();
+        }
+    }
+
+    /**
+     * Sends a copy of the best particle of each swarm to the swarms given by
+     * the migration topology, where it replaces the worst particle if it is
+     * better
+     */
+    private void migrate() {
+        final int numIslands = swarms.size();
+        List<ParticleCandidate<E>> migrants = new ArrayList<>(numIslands);
+        for (Swarm swarm : swarms) {
+            migrants.add(swarm.swarmBest.copy());
+            setBestCandidateIfBetter(swarm.swarmBest);
+        }
+        SplittableRandom rng = RandomSource.current();
+        for (int s = 0; s < numIslands; s++) {
+            ParticleCandidate<E> migrant = migrants.get(s);
+            for (int t : migrationTopology.targets(s, numIslands, rng)) {
+                receive(swarms.get(t), migrant);
             }
+        }
+    }
 
-            evaluate(particle);
-            if (particle.getCost() < particle.getLocalBest().getCost()) {
-                particle.setLocalBest((ParticleCandidate<E>) (particle).copy());
+    /**
+     * Replaces the worst particle of the swarm with the migrant if the
+     * migrant is better
+     *
+     * @param target the receiving swarm
+     * @param migrant the migrant, which is not modified
+     */
+    private void receive(Swarm target, NumericCandidate<E> migrant) {
+        ParticleCandidate<E> worst = target.get(0);
+        for (ParticleCandidate<E> particle : target) {
+            if (particle.getCost() > worst.getCost()) {
+                worst = particle;
+            }
+        }
+        if (migrant.getCost() < worst.getCost()) {
+            for (int i = 0; i < getDimension(); i++) {
+                worst.setDouble(i, migrant.getDouble(i));
+            }
+            worst.setCost(migrant.getCost());
+            worst.promoteToLocalBest();
+            if (worst.getCost() < target.swarmBest.getCost()) {
+                target.swarmBest = (ParticleCandidate<E>) worst.copy();
+            }
+            if (target.swarmBest.getCost() < target.islandBest.getCost()) {
+                target.islandBest = target.swarmBest;
             }
-            if (particle.getCost() < swarm.swarmBest.getCost()) {
-                swarm.swarmBest = (ParticleCandidate<E>) (particle).copy();
+        }
+    }
+
+    /**
+     * Returns copies of the best particle of the best swarms
+     *
+     * @param count the preferred number of migrants
+     * @return the migrants
+     */
+    @Override
+    public List<Candidate<E>> emigrate(int count) {
+        List<Candidate<E>> bests = new ArrayList<>(swarms.size());
+        for (Swarm swarm : swarms) {
+            bests.add(swarm.swarmBest);
+        }
+        Collections.sort(bests);
+        List<Candidate<E>> migrants = new ArrayList<>(count);
+        for (int i = 0; i < Math.min(count, bests.size()); i++) {
+            migrants.add(bests.get(i).copy());
+        }
+        return migrants;
+    }
+
+    /**
+     * Distributes the migrants round robin over the swarms, where each one
+     * replaces the worst particle of its swarm if it is better
+     *
+     * @param migrants the migrants
+     */
+    @Override
+    public void immigrate(List<Candidate<E>> migrants) {
+        for (int i = 0; i < migrants.size(); i++) {
+            receive(swarms.get(i % swarms.size()), (NumericCandidate<E>) migrants.get(i));
+            setBestCandidateIfBetter(migrants.get(i));
+        }
+    }
+
+    /**
+     * Updates the personal and swarm best of an evaluated particle
+     *
+     * @param swarm the swarm of the particle
+     * @param particle the evaluated particle
+     * @param publish whether or not to update the global best as well
+     */
+    private void updateBests(Swarm swarm, ParticleCandidate<E> particle, boolean publish) {
+        if (particle.getCost() < particle.getLocalBestCost()) {
+            particle.promoteToLocalBest();
+        }
+        if (particle.getCost() < swarm.swarmBest.getCost()) {
+            swarm.swarmBest = (ParticleCandidate<E>) (particle).copy();
+            if (publish) {
                 setBestCandidateIfBetter(particle);
             }
         }
     }
 
+    private void threadingTask(final Swarm swarm, SplittableRandom rng) {
+        for (ParticleCandidate<E> particle : swarm) {
+            if (isCancelled()) {
+                return;
+            }
+            move(particle, swarm.swarmBest, (NumericCandidate<E>) peekBestCandidate(), rng);
+            evaluate(particle);
+            updateBests(swarm, particle, true);
+        }
+    }
+
+    /**
+     * Updates the velocity and position of the particle
+     *
+     * @param particle the particle to move
+     * @param swarmBest the best particle of its swarm
+     * @param best the global best
+     * @param rng the generator to use
+     */
+    private void move(ParticleCandidate<E> particle, NumericCandidate<E> swarmBest, NumericCandidate<E> best, SplittableRandom rng) {
+        if (particle instanceof DoubleArrayParticle && best.getElements() instanceof double[]) {
+            DoubleArrayParticle p = (DoubleArrayParticle) particle;
+            kernel.update(p.getElements(), p.getVelocity(), 0, p.getLocalBestPosition(), 0, (double[]) swarmBest.getElements(),
+                    (double[]) best.getElements(), getDimension(), omega, c1, c2, c3, maxVel, rng);
+            p.invalidate();
+            return;
+        }
+        for (int i = 0; i < getDimension(); i++) {
+            double li = particle.getLocalBestAt(i);
+            double si = swarmBest.getDouble(i);
+            double gi = best.getDouble(i);
+            double pi = particle.getDouble(i);
+            double vi = particle.getVelocity(i);
+
+            double newVel = (omega * vi)
+                    + (rng.nextDouble() * c1 * (li - pi))
+                    + (rng.nextDouble() * c2 * (si - pi))
+                    + (rng.nextDouble() * c3 * (gi - pi));
+
+            if (Math.abs(newVel) > maxVel) {
+                newVel = newVel > 0 ? maxVel : -maxVel;
+            }
+
+            double newPos = pi + newVel;
+            if (newPos < 0) {
+                newPos = 0;
+            } else if (newPos > 1) {
+                newPos = 1;
+            }
+            particle.setDouble(i, newPos);
+            particle.setVelocity(i, newVel);
+        }
+    }
+
+    /**
+     * Getter for the kernel used to move the particles
+     *
+     * @return the particle update kernel
+     */
+    public ParticleUpdateKernel getUpdateKernel() {
+        return kernel;
+    }
+
+    /**
+     * Sets the kernel used to move particles stored in primitive arrays
+     *
+     * @param kernel the particle update kernel
+     */
+    public void setUpdateKernel(ParticleUpdateKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    /**
+     * Whether or not island mode is used. See {@link #setIslandMode(boolean)}
+     *
+     * @return true if island mode, false otherwise
+     */
+    public boolean isIslandMode() {
+        return islandMode;
+    }
+
+    /**
+     * In island mode each swarm runs migrationInterval iterations on its own
+     * worker without reading any shared state, using the best candidate it
+     * knows of as the global attractor. The swarms then exchange their best
+     * particles according to the migration topology. One call to
+     * singleIteration() covers one such migration period. Disables steady
+     * state mode.
+     *
+     * @param islandMode true for island mode, false otherwise
+     */
+    public void setIslandMode(boolean islandMode) {
+        this.islandMode = islandMode;
+        if (islandMode) {
+            this.steadyState = false;
+        }
+    }
+
+    /**
+     * Whether or not the steady state engine is used. See
+     * {@link #setSteadyState(boolean)}
+     *
+     * @return true if steady state, false otherwise
+     */
+    public boolean isSteadyState() {
+        return steadyState;
+    }
+
+    /**
+     * In steady state mode there is no barrier between the swarms. Each
+     * worker of the execution context takes a free swarm, moves, evaluates
+     * and updates its next particle, and moves on to the next free swarm, so
+     * a slow evaluation does not stall the other swarms. At most one worker
+     * per swarm is used. Disables island mode.
+     *
+     * @param steadyState true for steady state, false otherwise
+     */
+    public void setSteadyState(boolean steadyState) {
+        this.steadyState = steadyState;
+        if (steadyState) {
+            this.islandMode = false;
+        }
+    }
+
+    /**
+     * Getter for the number of local iterations between migrations
+     *
+     * @return the migration interval
+     */
+    public int getMigrationInterval() {
+        return migrationInterval;
+    }
+
+    /**
+     * Sets the number of local iterations between migrations in island mode
+     *
+     * @param migrationInterval the migration interval, at least 1
+     */
+    public void setMigrationInterval(int migrationInterval) {
+        if (migrationInterval < 1) {
+            throw new IllegalArgumentException("Migration interval must be at least 1, was " + migrationInterval);
+        }
+        this.migrationInterval = migrationInterval;
+    }
+
+    /**
+     * Getter for the migration topology
+     *
+     * @return the migration topology
+     */
+    public MigrationTopology getMigrationTopology() {
+        return migrationTopology;
+    }
+
+    /**
+     * Sets which swarms receive the best particle of each swarm in island
+     * mode
+     *
+     * @param migrationTopology the migration topology
+     */
+    public void setMigrationTopology(MigrationTopology migrationTopology) {
+        this.migrationTopology = migrationTopology;
+    }
+
     @Override
     public double getAverageCost() {
         double avgCost = 0;
@@ -201,6 +532,8 @@ public class MultiSwarmOptimization<E> extends Algorithm<E> implements Populatio
     private class Swarm extends ArrayList<ParticleCandidate<E>> {
 
         public ParticleCandidate<E> swarmBest;
+        public NumericCandidate<E> islandBest;
+        public int next;
 
         public Swarm(Collection<? extends Candidate<E>> c) {
             for (Candidate<E> candidate : c) {
@@ -208,6 +541,7 @@ public class MultiSwarmOptimization<E> extends Algorithm<E> implements Populatio
             }
             Collections.sort(this);
             swarmBest = (ParticleCandidate<E>) (get(0).copy());
+            islandBest = swarmBest;
         }
     }
 }
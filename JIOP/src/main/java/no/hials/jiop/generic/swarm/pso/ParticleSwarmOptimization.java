@@ -25,13 +25,19 @@
  */
 package no.hials.jiop.generic.swarm.pso;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import no.hials.jiop.generic.Evaluator;
 import no.hials.jiop.generic.GeneralPopulationBasedAlgorithm;
+import no.hials.jiop.generic.SteadyStateEngine;
+import no.hials.jiop.generic.SteadyStateRule;
 import no.hials.jiop.util.NormalizationUtility;
 import no.hials.jiop.generic.candidates.Candidate;
 import no.hials.jiop.generic.candidates.NumericCandidate;
+import no.hials.jiop.generic.candidates.particles.DoubleArrayParticle;
 import no.hials.jiop.generic.candidates.particles.ParticleCandidate;
 import no.hials.jiop.generic.factories.NumericCandidateFactory;
 import no.hials.jiop.generic.tuning.Optimizable;
@@ -47,6 +53,15 @@ public class ParticleSwarmOptimization<E> extends GeneralPopulationBasedAlgorith
     public double omega = 0.729, c1 = 1.49445, c2 = 1.49445, maxVel = 0.26;
 
     private final boolean multiThreaded;
+    private boolean steadyState, blockMode;
+    private int epoch = 1;
+
+    private ParticleUpdateKernel kernel = ParticleUpdateKernel.SCALAR;
+
+    private transient SteadyStateEngine<E> steadyStateEngine;
+    private transient SteadyStateRule<E> steadyStateRule;
+    private transient NumericCandidate<E>[] blockBests;
+    private transient int iterationsSinceMerge;
 
     public ParticleSwarmOptimization(int size, NumericCandidateFactory<E> candidateFactory, Evaluator<E> evaluator, boolean multiThreaded) {
         super(size, candidateFactory, evaluator, multiThreaded ? "MultiThreaded Particle Swarm Optimization" : "SingleThreaded Particle Swarm Optimization");
@@ -71,13 +86,36 @@ public class ParticleSwarmOptimization<E> extends GeneralPopulationBasedAlgorith
         this.maxVel = maxVel;
     }
 
+    @Override
+    public Candidate<E> subInit() {
+        this.blockBests = null;
+        return super.subInit();
+    }
+
+    @Override
+    public Candidate<E> subInit(List<E> seeds) {
+        this.blockBests = null;
+        return super.subInit(seeds);
+    }
+
     @Override
     protected void singleIteration() {
-        for (Candidate<E> p : population) {
+        if (steadyState) {
+            steadyStateIteration();
+            return;
+        }
+        if (blockMode) {
+            blockIteration();
+            return;
+        }
+        final long seed = rng.nextLong();
+        for (int i = 0; i < size(); i++) {
+            final ParticleCandidate<E> p = (ParticleCandidate<E>) population.get(i);
+            final SplittableRandom random = new SplittableRandom(seed + i);
             if (multiThreaded) {
-                getCompletionService().submit(() -> threadingTask((ParticleCandidate<E>) p), null);
+                getCompletionService().submit(() -> threadingTask(p, random), null);
             } else {
-                threadingTask((ParticleCandidate<E>) p);
+                threadingTask(p, random);
             }
         }
         if (multiThreaded) {
@@ -91,12 +129,34 @@ public class ParticleSwarmOptimization<E> extends GeneralPopulationBasedAlgorith
         }
     }
 
-    private void threadingTask(final ParticleCandidate<E> particle) {
+    private void threadingTask(final ParticleCandidate<E> particle, SplittableRandom random) {
+        if (isCancelled()) {
+            return;
+        }
+        move(particle, (NumericCandidate<E>) peekBestCandidate(), random);
+        evaluate(particle);
+        updateLocalBest(particle);
+    }
+
+    /**
+     * Updates the velocity and position of the particle
+     *
+     * @param particle the particle to move
+     * @param best the global attractor
+     * @param rng the generator to use
+     */
+    private void move(final ParticleCandidate<E> particle, NumericCandidate<E> best, SplittableRandom rng) {
+        if (particle instanceof DoubleArrayParticle && best.getElements() instanceof double[]) {
+            DoubleArrayParticle p = (DoubleArrayParticle) particle;
+            kernel.update(p.getElements(), p.getVelocity(), 0, p.getLocalBestPosition(), 0, (double[]) best.getElements(), getDimension(), omega, c1, c2, maxVel, rng);
+            p.invalidate();
+            return;
+        }
         for (int i = 0; i < getDimension(); i++) {
-            double li = particle.getLocalBest().get(i).doubleValue();
-            double gi = ((NumericCandidate<E>) getBestCandidate()).get(i).doubleValue();
-            double pi = particle.get(i).doubleValue();
-            double vi = particle.getVelocityAt(i).doubleValue();
+            double li = particle.getLocalBestAt(i);
+            double gi = best.getDouble(i);
+            double pi = particle.getDouble(i);
+            double vi = particle.getVelocity(i);
 
             double newVel = (omega * vi) + (rng.nextDouble() * c1 * (li - pi)) + (rng.nextDouble() * c2 * (gi - pi));
 
@@ -110,16 +170,191 @@ public class ParticleSwarmOptimization<E> extends GeneralPopulationBasedAlgorith
             } else if (newPos > 1) {
                 newPos = 1;
             }
-            particle.set(i, newPos);
-            particle.setVelocityAt(i, newVel);
+            particle.setDouble(i, newPos);
+            particle.setVelocity(i, newVel);
         }
-        evaluate(particle);
+    }
+
+    /**
+     * Updates the local best of an evaluated particle, and the global best
+     * if it improved
+     *
+     * @param particle the evaluated particle
+     */
+    private void updateLocalBest(final ParticleCandidate<E> particle) {
         double cost = particle.getCost();
-        if (cost < particle.getLocalBest().getCost()) {
-            particle.setLocalBest((NumericCandidate<E>) (particle).copy());
+        if (cost < particle.getLocalBestCost()) {
+            particle.promoteToLocalBest();
             setBestCandidateIfBetter(particle);
         }
+    }
+
+    /**
+     * Moves the particles in contiguous blocks, one block per worker. Each
+     * block is attracted to its own best, which is only synchronized with the
+     * global best every epoch iterations. Block bests are published to the
+     * global best after every iteration.
+     */
+    private void blockIteration() {
+        int numBlocks = multiThreaded ? Math.min(getExecutionContext().getParallelism(), size()) : 1;
+        if (blockBests == null || blockBests.length != numBlocks || iterationsSinceMerge >= epoch) {
+            NumericCandidate<E> global = (NumericCandidate<E>) peekBestCandidate();
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            NumericCandidate<E>[] bests = new NumericCandidate[numBlocks];
+            Arrays.fill(bests, global);
+            blockBests = bests;
+            iterationsSinceMerge = 0;
+        }
+        final int n = size();
+        final long seed = rng.nextLong();
+        invokeAll(numBlocks, block -> {
+            SplittableRandom rng = new SplittableRandom(seed + block);
+            int to = (int) ((long) (block + 1) * n / numBlocks);
+            for (int i = (int) ((long) block * n / numBlocks); i < to && !isCancelled(); i++) {
+                ParticleCandidate<E> particle = (ParticleCandidate<E>) population.get(i);
+                move(particle, blockBests[block], rng);
+                evaluate(particle);
+                if (particle.getCost() < particle.getLocalBestCost()) {
+                    particle.promoteToLocalBest();
+                    if (particle.getCost() < blockBests[block].getCost()) {
+                        blockBests[block] = particle.copy();
+                    }
+                }
+            }
+        });
+        for (NumericCandidate<E> best : blockBests) {
+            setBestCandidateIfBetter(best);
+        }
+        iterationsSinceMerge++;
+    }
+
+    /**
+     * Whether or not block mode is used. See {@link #setBlockMode(boolean)}
+     *
+     * @return true if block mode, false otherwise
+     */
+    public boolean isBlockMode() {
+        return blockMode;
+    }
+
+    /**
+     * In block mode the particles are split into one contiguous block per
+     * worker. Within a block, particles are attracted to the best of that
+     * block, and the blocks only pick up the global best every epoch
+     * iterations. This trades a slightly stale attractor for workers that
+     * share no state during an iteration. Disables steady state mode.
+     *
+     * @param blockMode true for block mode, false otherwise
+     */
+    public void setBlockMode(boolean blockMode) {
+        this.blockMode = blockMode;
+        if (blockMode) {
+            this.steadyState = false;
+        }
+    }
+
+    /**
+     * Getter for the number of iterations between each time the blocks pick
+     * up the global best in block mode
+     *
+     * @return the epoch length
+     */
+    public int getEpoch() {
+        return epoch;
+    }
 
+    /**
+     * Sets the number of iterations between each time the blocks pick up the
+     * global best in block mode
+     *
+     * @param epoch the epoch length, at least 1
+     */
+    public void setEpoch(int epoch) {
+        if (epoch < 1) {
+            throw new IllegalArgumentException("Epoch must be at least 1, was " + epoch);
+        }
+        this.epoch = epoch;
+    }
+
+    /**
+     * Lets the steady state engine perform size() evaluations. Each particle
+     * moves again as soon as its previous position has been evaluated, and
+     * the workers of the engine keep going until compute() returns.
+     */
+    private void steadyStateIteration() {
+        if (steadyStateEngine == null) {
+            steadyStateEngine = new SteadyStateEngine<>(this);
+            steadyStateRule = new SteadyStateRule<E>() {
+
+                @Override
+                public int slots() {
+                    return size();
+                }
+
+                @Override
+                public Candidate<E> produce(int slot, SplittableRandom rng) {
+                    ParticleCandidate<E> particle = (ParticleCandidate<E>) population.get(slot);
+                    move(particle, (NumericCandidate<E>) peekBestCandidate(), rng);
+                    return particle;
+                }
+
+                @Override
+                public void accept(int slot, Candidate<E> candidate) {
+                    updateLocalBest((ParticleCandidate<E>) candidate);
+                }
+            };
+        }
+        steadyStateEngine.run(steadyStateRule, size());
+    }
+
+    @Override
+    protected void afterCompute() {
+        if (steadyStateEngine != null) {
+            steadyStateEngine.stop();
+        }
+    }
+
+    /**
+     * Whether or not the steady state engine is used. See
+     * {@link #setSteadyState(boolean)}
+     *
+     * @return true if steady state, false otherwise
+     */
+    public boolean isSteadyState() {
+        return steadyState;
+    }
+
+    /**
+     * In steady state mode there is no iteration barrier. Each worker of the
+     * execution context moves, evaluates and updates one particle after the
+     * other, so a slow evaluation does not stall the other workers.
+     * Disables block mode.
+     *
+     * @param steadyState true for steady state, false otherwise
+     */
+    public void setSteadyState(boolean steadyState) {
+        this.steadyState = steadyState;
+        if (steadyState) {
+            this.blockMode = false;
+        }
+    }
+
+    /**
+     * Getter for the kernel used to move the particles
+     *
+     * @return the particle update kernel
+     */
+    public ParticleUpdateKernel getUpdateKernel() {
+        return kernel;
+    }
+
+    /**
+     * Sets the kernel used to move particles stored in primitive arrays
+     *
+     * @param kernel the particle update kernel
+     */
+    public void setUpdateKernel(ParticleUpdateKernel kernel) {
+        this.kernel = kernel;
     }
 
     public double getOmega() {
@@ -155,6 +390,20 @@ public class ParticleSwarmOptimization<E> extends GeneralPopulationBasedAlgorith
 
     }
 
+    /**
+     * Converts the migrant to a particle, which remembers its position as
+     * the personal best
+     *
+     * @param migrant the migrant
+     * @return a particle
+     */
+    @Override
+    protected Candidate<E> adopt(Candidate<E> migrant) {
+        ParticleCandidate<E> particle = (ParticleCandidate<E>) super.adopt(migrant);
+        particle.promoteToLocalBest();
+        return particle;
+    }
+
     @Override
     public int getNumberOfFreeParameters() {
         return 5;
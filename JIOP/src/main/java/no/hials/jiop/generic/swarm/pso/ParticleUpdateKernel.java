@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.swarm.pso;
+
+import java.io.Serializable;
+import java.util.SplittableRandom;
+
+/**
+ * Updates the velocity and position of a particle stored in primitive
+ * arrays. Positions are limited to the unit hypercube, and velocities to
+ * [-maxVel, maxVel].
+ *
+ * @author Lars Ivar Hatledal
+ */
+public interface ParticleUpdateKernel extends Serializable {
+
+    /**
+     * The default, scalar kernel
+     */
+    public static final ParticleUpdateKernel SCALAR = new ScalarParticleUpdateKernel();
+
+    /**
+     * A kernel using the incubating Vector API, which moves the particles
+     * exactly like SCALAR. Requires a jar built on JDK 16 or newer, and a
+     * JVM started with --add-modules jdk.incubator.vector. Otherwise this is
+     * the same instance as SCALAR.
+     */
+    public static final ParticleUpdateKernel VECTOR = VectorKernelLoader.load();
+
+    /**
+     * Standard PSO update, with a personal and a global attractor
+     *
+     * @param x the positions
+     * @param v the velocities
+     * @param offset the offset of the particle in x and v
+     * @param local the personal best positions
+     * @param localOffset the offset of the particle in local
+     * @param global the global best position
+     * @param length the dimension
+     * @param omega the inertia weight
+     * @param c1 the personal acceleration coefficient
+     * @param c2 the global acceleration coefficient
+     * @param maxVel the maximum velocity
+     * @param rng the generator to use
+     */
+    public void update(double[] x, double[] v, int offset, double[] local, int localOffset, double[] global, int length,
+            double omega, double c1, double c2, double maxVel, SplittableRandom rng);
+
+    /**
+     * Multi swarm update, with a personal, a swarm and a global attractor
+     *
+     * @param x the positions
+     * @param v the velocities
+     * @param offset the offset of the particle in x and v
+     * @param local the personal best positions
+     * @param localOffset the offset of the particle in local
+     * @param swarm the swarm best position
+     * @param global the global best position
+     * @param length the dimension
+     * @param omega the inertia weight
+     * @param c1 the personal acceleration coefficient
+     * @param c2 the swarm acceleration coefficient
+     * @param c3 the global acceleration coefficient
+     * @param maxVel the maximum velocity
+     * @param rng the generator to use
+     */
+    public void update(double[] x, double[] v, int offset, double[] local, int localOffset, double[] swarm, double[] global, int length,
+            double omega, double c1, double c2, double c3, double maxVel, SplittableRandom rng);
+}
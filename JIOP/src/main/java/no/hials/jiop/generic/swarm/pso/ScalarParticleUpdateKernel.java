@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.swarm.pso;
+
+import java.util.SplittableRandom;
+
+/**
+ * Scalar particle update, written so that the JIT can vectorize it. The
+ * random coefficients are drawn into a per-thread buffer first, which leaves
+ * the update itself as a straight, branch free loop over primitive arrays.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public final class ScalarParticleUpdateKernel implements ParticleUpdateKernel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<double[]> RANDOMS = new ThreadLocal<>();
+
+    @Override
+    public void update(double[] x, double[] v, int offset, double[] local, int localOffset, double[] global, int length,
+            double omega, double c1, double c2, double maxVel, SplittableRandom rng) {
+        double[] r = randoms(2 * length, rng);
+        for (int i = 0; i < length; i++) {
+            int k = offset + i;
+            double pi = x[k];
+            double newVel = (omega * v[k])
+                    + (r[i] * c1 * (local[localOffset + i] - pi))
+                    + (r[length + i] * c2 * (global[i] - pi));
+            newVel = Math.max(-maxVel, Math.min(maxVel, newVel));
+            x[k] = Math.max(0, Math.min(1, pi + newVel));
+            v[k] = newVel;
+        }
+    }
+
+    @Override
+    public void update(double[] x, double[] v, int offset, double[] local, int localOffset, double[] swarm, double[] global, int length,
+            double omega, double c1, double c2, double c3, double maxVel, SplittableRandom rng) {
+        double[] r = randoms(3 * length, rng);
+        for (int i = 0; i < length; i++) {
+            int k = offset + i;
+            double pi = x[k];
+            double newVel = (omega * v[k])
+                    + (r[i] * c1 * (local[localOffset + i] - pi))
+                    + (r[length + i] * c2 * (swarm[i] - pi))
+                    + (r[2 * length + i] * c3 * (global[i] - pi));
+            newVel = Math.max(-maxVel, Math.min(maxVel, newVel));
+            x[k] = Math.max(0, Math.min(1, pi + newVel));
+            v[k] = newVel;
+        }
+    }
+
+    /**
+     * Fills the buffer of the calling thread with n uniform random numbers
+     */
+    private static double[] randoms(int n, SplittableRandom rng) {
+        double[] r = RANDOMS.get();
+        if (r == null || r.length < n) {
+            r = new double[n];
+            RANDOMS.set(r);
+        }
+        for (int i = 0; i < n; i++) {
+            r[i] = rng.nextDouble();
+        }
+        return r;
+    }
+
+    private Object readResolve() {
+        return SCALAR;
+    }
+}
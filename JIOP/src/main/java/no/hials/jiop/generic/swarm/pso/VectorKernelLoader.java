@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.swarm.pso;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Loads the Vector API particle kernel, which is compiled separately from
+ * the rest of the library (see src/vector/java). The class is only found
+ * when the jar was built on JDK 16 or newer, and only links when the running
+ * JVM has the jdk.incubator.vector module, so any failure falls back to the
+ * scalar kernel.
+ *
+ * @author Lars Ivar Hatledal
+ */
+final class VectorKernelLoader {
+
+    private static final String VECTOR_KERNEL = "no.hials.jiop.generic.swarm.pso.VectorParticleUpdateKernel";
+
+    private VectorKernelLoader() {
+    }
+
+    static ParticleUpdateKernel load() {
+        try {
+            Constructor<?> constructor = Class.forName(VECTOR_KERNEL).getConstructor();
+            return (ParticleUpdateKernel) constructor.newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException ex) {
+            return ParticleUpdateKernel.SCALAR;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.temination;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A cheap flag telling long running work that it should wrap up. The token
+ * is cancelled either explicitly through cancel(), or when the poll (if any)
+ * returns true. The poll is run at most once per poll interval, and by one
+ * thread at a time, so isCancelled() can be called for every evaluation.
+ *
+ * Algorithm.compute() polls its termination criterias through a token, so
+ * algorithms and evaluators checking it inside their inner loops let
+ * time-boxed runs return within roughly one poll interval plus one
+ * evaluation.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class CancellationToken {
+
+    private final BooleanSupplier poll;
+    private final long pollInterval;
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    private volatile boolean cancelled;
+    private volatile long nextPoll;
+
+    /**
+     * Creates a token which is only cancelled through cancel()
+     */
+    public CancellationToken() {
+        this(null, 0);
+    }
+
+    /**
+     * Creates a token which is cancelled when the poll returns true
+     *
+     * @param poll returns true when the work should stop
+     * @param pollInterval the minimum time between two polls in nanoseconds
+     */
+    public CancellationToken(BooleanSupplier poll, long pollInterval) {
+        if (pollInterval < 0) {
+            throw new IllegalArgumentException("The poll interval cannot be negative, was " + pollInterval);
+        }
+        this.poll = poll;
+        this.pollInterval = pollInterval;
+        this.nextPoll = System.nanoTime() + pollInterval;
+    }
+
+    /**
+     * Cancels the token
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * Whether or not the work should stop
+     *
+     * @return true if the token has been cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        if (cancelled) {
+            return true;
+        }
+        if (poll != null && System.nanoTime() - nextPoll >= 0 && polling.compareAndSet(false, true)) {
+            try {
+                if (poll.getAsBoolean()) {
+                    cancelled = true;
+                }
+                nextPoll = System.nanoTime() + pollInterval;
+            } finally {
+                polling.set(false);
+            }
+        }
+        return cancelled;
+    }
+}
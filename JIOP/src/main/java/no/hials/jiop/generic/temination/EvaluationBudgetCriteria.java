@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.temination;
+
+/**
+ * TerminationCriteria based on the number of cost function evaluations used
+ * by the algorithm. Unlike NumIterationsCriteria this gives every algorithm
+ * the same amount of work, regardless of how many evaluations it performs
+ * per iteration. The budget is checked between iterations, so it may be
+ * exceeded by the evaluations of the last iteration, unless polling inside
+ * iterations is enabled with Algorithm.setTerminationCheckInterval().
+ *
+ * @author Lars Ivar Hatledal
+ */
+public class EvaluationBudgetCriteria implements TerminationCriteria {
+
+    private final long maxEvaluations;
+
+    public EvaluationBudgetCriteria(long maxEvaluations) {
+        if (maxEvaluations < 1) {
+            throw new IllegalArgumentException("The evaluation budget must be at least 1, was " + maxEvaluations);
+        }
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    @Override
+    public boolean souldTerminate(TerminationData data) {
+        return data.numEvaluations >= maxEvaluations;
+    }
+
+}
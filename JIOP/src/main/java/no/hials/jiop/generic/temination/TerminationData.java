@@ -34,11 +34,23 @@ public class TerminationData {
     public final double bestCost;
     public final long timeElapsed;
     public final int numIterations;
+    public final long numEvaluations;
 
     public TerminationData(double bestCost, long timeEleapsed, int numIterations) {
+        this(bestCost, timeEleapsed, numIterations, 0);
+    }
+
+    /**
+     * @param bestCost the best cost found so far
+     * @param timeEleapsed the time used in milliseconds
+     * @param numIterations the number of iterations performed
+     * @param numEvaluations the number of cost function evaluations performed
+     */
+    public TerminationData(double bestCost, long timeEleapsed, int numIterations, long numEvaluations) {
         this.bestCost = bestCost;
         this.timeElapsed = timeEleapsed;
         this.numIterations = numIterations;
+        this.numEvaluations = numEvaluations;
     }
     
     
@@ -36,6 +36,7 @@ import no.hials.jiop.history.MLHistory.MLHistoryPoint;
 public class MLHistory extends ArrayList<MLHistoryPoint> {
 
     private long tOffset = 0;
+    private long eOffset = 0;
     private int iteration = 0;
 
     /**
@@ -45,14 +46,27 @@ public class MLHistory extends ArrayList<MLHistoryPoint> {
      * @param timestamp the time it took to get the solution
      */
     public void add(long timestamp, double cost) {
-        add(new MLHistoryPoint(timestamp + tOffset, cost, iteration++));
+        add(timestamp, cost, 0);
+    }
+
+    /**
+     * Adds a new element to the list
+     *
+     * @param cost the cost
+     * @param timestamp the time it took to get the solution
+     * @param evaluations the number of evaluations it took to get the solution
+     */
+    public void add(long timestamp, double cost, long evaluations) {
+        add(new MLHistoryPoint(timestamp + tOffset, cost, iteration++, evaluations + eOffset));
         tOffset += timestamp;
+        eOffset += evaluations;
     }
 
     @Override
     public void clear() {
         super.clear();
         tOffset = 0;
+        eOffset = 0;
         iteration = 0;
     }
 
@@ -80,6 +94,14 @@ public class MLHistory extends ArrayList<MLHistoryPoint> {
         return iterations;
     }
 
+    public long[] getEvaluations() {
+        long[] evaluations = new long[size()];
+        for (int i = 0; i < size(); i++) {
+            evaluations[i] = get(i).evaluations;
+        }
+        return evaluations;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -97,16 +119,22 @@ public class MLHistory extends ArrayList<MLHistoryPoint> {
         public final double cost;
         public final int iteration;
         public final long timestamp;
+        public final long evaluations;
 
         public MLHistoryPoint(long timestamp, double cost, int iteration) {
+            this(timestamp, cost, iteration, 0);
+        }
+
+        public MLHistoryPoint(long timestamp, double cost, int iteration, long evaluations) {
             this.cost = cost;
             this.iteration = iteration;
             this.timestamp = timestamp;
+            this.evaluations = evaluations;
         }
 
         @Override
         public String toString() {
-            return "MLHistoryPoint{" + "cost=" + cost + ", timestamp=" + timestamp + '}';
+            return "MLHistoryPoint{" + "cost=" + cost + ", timestamp=" + timestamp + ", evaluations=" + evaluations + '}';
         }
 
     }
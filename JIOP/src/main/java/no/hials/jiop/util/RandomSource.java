@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.util;
+
+import java.io.Serializable;
+import java.util.SplittableRandom;
+
+/**
+ * Source of random numbers shared by the whole framework. Every thread draws
+ * from its own SplittableRandom stream, so there is no contention between
+ * worker threads. All the streams are split from a single master generator,
+ * so invoking setSeed() before a single threaded run makes it reproducible.
+ * As each thread's stream is split from the master in the order the threads
+ * first draw a number after the seed was set, the algorithms give their
+ * parallel tasks generators derived from the stream of the calling thread
+ * and the index of the task instead, see runWith().
+ *
+ * @author Lars Ivar Hatledal
+ */
+public final class RandomSource implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final RandomSource INSTANCE = new RandomSource();
+
+    private static final Object lock = new Object();
+    private static final ThreadLocal<Stream> streams = new ThreadLocal<>();
+    private static SplittableRandom master = new SplittableRandom();
+    private static volatile int generation;
+
+    private RandomSource() {
+    }
+
+    /**
+     * Getter for the shared instance. The instance methods delegate to the
+     * stream of the calling thread.
+     *
+     * @return the shared RandomSource
+     */
+    public static RandomSource getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Reseeds the master generator. Every thread starts a new stream, split
+     * from the new master, the next time it draws a number.
+     *
+     * @param seed the master seed
+     */
+    public static void setSeed(long seed) {
+        synchronized (lock) {
+            master = new SplittableRandom(seed);
+            generation++;
+        }
+    }
+
+    /**
+     * Get the random generator of the calling thread. The returned instance
+     * must not be shared with other threads. Hot loops should fetch it once
+     * rather than going through the instance methods for each number.
+     *
+     * @return the random generator of the calling thread
+     */
+    public static SplittableRandom current() {
+        Stream stream = streams.get();
+        if (stream == null || stream.generation != generation) {
+            synchronized (lock) {
+                stream = new Stream(generation, master.split());
+            }
+            streams.set(stream);
+        }
+        return stream.rng;
+    }
+
+    /**
+     * Runs the task with the given generator as the stream of the calling
+     * thread, and restores the previous stream afterwards. Lets a parallel
+     * task draw the same numbers regardless of which worker runs it.
+     *
+     * @param rng the generator to use while the task runs
+     * @param task the task to run
+     */
+    public static void runWith(SplittableRandom rng, Runnable task) {
+        Stream previous = streams.get();
+        streams.set(new Stream(generation, rng));
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                streams.remove();
+            } else {
+                streams.set(previous);
+            }
+        }
+    }
+
+    public double nextDouble() {
+        return current().nextDouble();
+    }
+
+    public float nextFloat() {
+        return (float) current().nextDouble();
+    }
+
+    public int nextInt(int bound) {
+        return current().nextInt(bound);
+    }
+
+    public long nextLong() {
+        return current().nextLong();
+    }
+
+    public boolean nextBoolean() {
+        return current().nextBoolean();
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+
+    private static final class Stream {
+
+        private final int generation;
+        private final SplittableRandom rng;
+
+        private Stream(int generation, SplittableRandom rng) {
+            this.generation = generation;
+            this.rng = rng;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2014, Aalesund University College 
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+package no.hials.jiop.generic.swarm.pso;
+
+import java.util.SplittableRandom;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Particle update using the incubating Vector API. Only the arithmetic is
+ * vectorized: the random coefficients are drawn one by one into a per-thread
+ * buffer, in the same order as in ScalarParticleUpdateKernel, so that a
+ * seeded run moves the particles bit-identically with either kernel. The
+ * fill stays scalar on purpose, as SplittableRandom has no vectorized
+ * counterpart producing the same stream. Needs JDK 16 or newer started
+ * with --add-modules jdk.incubator.vector, and is only obtained through
+ * ParticleUpdateKernel.VECTOR.
+ *
+ * @author Lars Ivar Hatledal
+ */
+public final class VectorParticleUpdateKernel implements ParticleUpdateKernel {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final ThreadLocal<double[]> RANDOMS = new ThreadLocal<>();
+
+    @Override
+    public void update(double[] x, double[] v, int offset, double[] local, int localOffset, double[] global, int length,
+            double omega, double c1, double c2, double maxVel, SplittableRandom rng) {
+        double[] r = randoms(2 * length, rng);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            int k = offset + i;
+            DoubleVector pi = DoubleVector.fromArray(SPECIES, x, k);
+            DoubleVector newVel = DoubleVector.fromArray(SPECIES, v, k).mul(omega)
+                    .add(DoubleVector.fromArray(SPECIES, r, i).mul(c1).mul(DoubleVector.fromArray(SPECIES, local, localOffset + i).sub(pi)))
+                    .add(DoubleVector.fromArray(SPECIES, r, length + i).mul(c2).mul(DoubleVector.fromArray(SPECIES, global, i).sub(pi)))
+                    .min(maxVel).max(-maxVel);
+            pi.add(newVel).min(1).max(0).intoArray(x, k);
+            newVel.intoArray(v, k);
+        }
+        for (; i < length; i++) {
+            int k = offset + i;
+            double pi = x[k];
+            double newVel = (omega * v[k])
+                    + (r[i] * c1 * (local[localOffset + i] - pi))
+                    + (r[length + i] * c2 * (global[i] - pi));
+            newVel = Math.max(-maxVel, Math.min(maxVel, newVel));
+            x[k] = Math.max(0, Math.min(1, pi + newVel));
+            v[k] = newVel;
+        }
+    }
+
+    @Override
+    public void update(double[] x, double[] v, int offset, double[] local, int localOffset, double[] swarm, double[] global, int length,
+            double omega, double c1, double c2, double c3, double maxVel, SplittableRandom rng) {
+        double[] r = randoms(3 * length, rng);
+        int i = 0;
+        for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            int k = offset + i;
+            DoubleVector pi = DoubleVector.fromArray(SPECIES, x, k);
+            DoubleVector newVel = DoubleVector.fromArray(SPECIES, v, k).mul(omega)
+                    .add(DoubleVector.fromArray(SPECIES, r, i).mul(c1).mul(DoubleVector.fromArray(SPECIES, local, localOffset + i).sub(pi)))
+                    .add(DoubleVector.fromArray(SPECIES, r, length + i).mul(c2).mul(DoubleVector.fromArray(SPECIES, swarm, i).sub(pi)))
+                    .add(DoubleVector.fromArray(SPECIES, r, 2 * length + i).mul(c3).mul(DoubleVector.fromArray(SPECIES, global, i).sub(pi)))
+                    .min(maxVel).max(-maxVel);
+            pi.add(newVel).min(1).max(0).intoArray(x, k);
+            newVel.intoArray(v, k);
+        }
+        for (; i < length; i++) {
+            int k = offset + i;
+            double pi = x[k];
+            double newVel = (omega * v[k])
+                    + (r[i] * c1 * (local[localOffset + i] - pi))
+                    + (r[length + i] * c2 * (swarm[i] - pi))
+                    + (r[2 * length + i] * c3 * (global[i] - pi));
+            newVel = Math.max(-maxVel, Math.min(maxVel, newVel));
+            x[k] = Math.max(0, Math.min(1, pi + newVel));
+            v[k] = newVel;
+        }
+    }
+
+    /**
+     * Fills the buffer of the calling thread with n uniform random numbers.
+     * Kept scalar to draw the same stream as the scalar kernel.
+     */
+    private static double[] randoms(int n, SplittableRandom rng) {
+        double[] r = RANDOMS.get();
+        if (r == null || r.length < n) {
+            r = new double[n];
+            RANDOMS.set(r);
+        }
+        for (int i = 0; i < n; i++) {
+            r[i] = rng.nextDouble();
+        }
+        return r;
+    }
+
+    private Object readResolve() {
+        return VECTOR;
+    }
+}